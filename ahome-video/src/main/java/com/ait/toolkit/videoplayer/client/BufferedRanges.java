@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+/**
+ * Time ranges (buffered, seekable or played) of a player, held in primitive start/end arrays, with the buffer health
+ * metrics derived from them.
+ * <p>
+ * Instances can be refilled by {@link VideoPlayer#getBuffered(BufferedRanges)} and friends to avoid allocating on every
+ * read.
+ */
+public class BufferedRanges {
+
+    /**
+     * Gap, in seconds, between two ranges still considered contiguous when measuring the buffer ahead.
+     */
+    public static final double GAP_TOLERANCE = 0.1;
+
+    private double[] starts;
+    private double[] ends;
+    private int length = 0;
+
+    public BufferedRanges() {
+        this( 4 );
+    }
+
+    BufferedRanges( int capacity ) {
+        starts = new double[capacity];
+        ends = new double[capacity];
+    }
+
+    /**
+     * @param starts - start of each range, in seconds, in increasing order.
+     * @param ends - end of each range, in seconds.
+     */
+    public BufferedRanges( double[] starts, double[] ends ) {
+        if( starts.length != ends.length ) {
+            throw new IllegalArgumentException( "Wrong number of range ends" );
+        }
+        this.starts = starts.clone();
+        this.ends = ends.clone();
+        this.length = starts.length;
+    }
+
+    void clear() {
+        length = 0;
+    }
+
+    void add( double start, double end ) {
+        if( length == starts.length ) {
+            double[] newStarts = new double[length * 2 + 1];
+            double[] newEnds = new double[length * 2 + 1];
+            System.arraycopy( starts, 0, newStarts, 0, length );
+            System.arraycopy( ends, 0, newEnds, 0, length );
+            starts = newStarts;
+            ends = newEnds;
+        }
+
+        starts[length] = start;
+        ends[length] = end;
+        length++;
+    }
+
+    /**
+     * Gets the number of ranges.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public double getStart( int index ) {
+        checkIndex( index );
+        return starts[index];
+    }
+
+    public double getEnd( int index ) {
+        checkIndex( index );
+        return ends[index];
+    }
+
+    /**
+     * Gets the end of the last range, or 0 if there is none.
+     */
+    public double getLastEnd() {
+        return length == 0 ? 0 : ends[length - 1];
+    }
+
+    /**
+     * Gets the total number of seconds covered by the ranges.
+     */
+    public double getTotal() {
+        double total = 0;
+        for( int i = 0; i < length; i++ ) {
+            total += ends[i] - starts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of holes between the ranges.
+     */
+    public int getGapCount() {
+        int gaps = 0;
+        for( int i = 1; i < length; i++ ) {
+            if( ( starts[i] - ends[i - 1] ) > GAP_TOLERANCE ) {
+                gaps++;
+            }
+        }
+        return gaps;
+    }
+
+    /**
+     * Gets the index of the range containing the given time, or -1.
+     */
+    public int indexOf( double time ) {
+        int low = 0;
+        int high = length - 1;
+
+        while( low <= high ) {
+            int mid = ( low + high ) >>> 1;
+
+            if( time < starts[mid] ) {
+                high = mid - 1;
+            } else if( time > ends[mid] ) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    public boolean contains( double time ) {
+        return indexOf( time ) >= 0;
+    }
+
+    /**
+     * Gets the number of seconds buffered contiguously ahead of the given playback position.
+     */
+    public double getAheadOf( double position ) {
+        int index = indexOf( position );
+
+        if( index < 0 ) {
+            return 0;
+        }
+
+        double end = ends[index];
+        for( int i = index + 1; ( i < length ) && ( ( starts[i] - end ) <= GAP_TOLERANCE ); i++ ) {
+            end = Math.max( end, ends[i] );
+        }
+
+        return end - position;
+    }
+
+    /**
+     * Check if playback at the given position is likely to stall: less than the given number of seconds is buffered
+     * ahead and the buffered data does not reach the end of the media.
+     *
+     * @param position - playback position, in seconds.
+     * @param duration - media duration, in seconds.
+     * @param minAhead - seconds of buffer ahead below which playback is at risk.
+     */
+    public boolean isStallRisk( double position, double duration, double minAhead ) {
+        double ahead = getAheadOf( position );
+        return ( ahead < minAhead ) && ( ( position + ahead ) < ( duration - GAP_TOLERANCE ) );
+    }
+
+    private void checkIndex( int index ) {
+        if( ( index < 0 ) || ( index >= length ) ) {
+            throw new IndexOutOfBoundsException( "Range index: " + index + ", length: " + length );
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+/**
+ * Drift of one member of a {@link SyncGroup} from the master, in seconds, and the corrections applied to it.
+ */
+public class DriftStats {
+
+    private int sampleCount = 0;
+    private double lastDrift = 0;
+    private double absoluteSum = 0;
+    private double maxDrift = 0;
+    private int nudgeCount = 0;
+    private int resyncCount = 0;
+    private double rate = 1;
+
+    void record( double drift ) {
+        sampleCount++;
+        lastDrift = drift;
+        absoluteSum += Math.abs( drift );
+        maxDrift = Math.max( maxDrift, Math.abs( drift ) );
+    }
+
+    void nudged( double rate ) {
+        nudgeCount++;
+        this.rate = rate;
+    }
+
+    void resynced() {
+        resyncCount++;
+        rate = 1;
+    }
+
+    void setRate( double rate ) {
+        this.rate = rate;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Gets the last measured drift: positive when the member is ahead of the master.
+     */
+    public double getLastDrift() {
+        return lastDrift;
+    }
+
+    /**
+     * Gets the mean absolute drift.
+     */
+    public double getMeanDrift() {
+        return sampleCount == 0 ? 0 : absoluteSum / sampleCount;
+    }
+
+    /**
+     * Gets the largest absolute drift.
+     */
+    public double getMaxDrift() {
+        return maxDrift;
+    }
+
+    /**
+     * Gets the number of playback rate changes made to correct the drift.
+     */
+    public int getNudgeCount() {
+        return nudgeCount;
+    }
+
+    /**
+     * Gets the number of seeks made because the drift went past the hard threshold.
+     */
+    public int getResyncCount() {
+        return resyncCount;
+    }
+
+    /**
+     * Gets the playback rate currently applied to the member, relative to the master.
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    public void reset() {
+        sampleCount = 0;
+        lastDrift = 0;
+        absoluteSum = 0;
+        maxDrift = 0;
+        nudgeCount = 0;
+        resyncCount = 0;
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.event.logical.shared.AttachEvent;
+import com.google.gwt.event.shared.HandlerRegistration;
+
+/**
+ * A page-wide playback clock, an alternative to <code>timeupdate</code> handlers for UI that follows the playhead.
+ * <p>
+ * On each animation frame the clock reads the position of every subscribed player that is playing, once, and hands it
+ * to the subscribers of that player. Each subscriber can ask for a minimum interval between samples and for a minimum
+ * change of the position, so work is bounded by the display refresh rate and by what the subscriber actually needs.
+ * The clock stops requesting frames while no subscribed player is playing or the page is hidden. Subscribers also get a
+ * sample, regardless of their limits, when their player pauses or finishes seeking. A player that is detached, or
+ * whose videojs instance is torn down, no longer counts as playing.
+ */
+public class FrameClock {
+
+    private static FrameClock instance;
+
+    /**
+     * Gets the clock shared by the page.
+     */
+    public static FrameClock get() {
+        if( instance == null ) {
+            instance = new FrameClock();
+        }
+        return instance;
+    }
+
+    /**
+     * Receives the position of a player.
+     */
+    public interface Listener {
+        void onTick( VideoPlayer player, double currentTime );
+    }
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    private final AnimationCallback frameCallback = new AnimationCallback() {
+        @Override
+        public void execute( double timestamp ) {
+            frame = null;
+            tick();
+        }
+    };
+
+    private AnimationHandle frame;
+    private boolean hidden = false;
+    private boolean ticking = false;
+    private int playingCount = 0;
+    private int tickCount = 0;
+
+    private FrameClock() {
+        listenVisibility();
+        hidden = isDocumentHidden();
+    }
+
+    /**
+     * Delivers the position of the player on every frame while it plays.
+     *
+     * @return a registration ending the subscription.
+     */
+    public HandlerRegistration subscribe( VideoPlayer player, Listener listener ) {
+        return subscribe( player, listener, 0, 0 );
+    }
+
+    /**
+     * Delivers the position of the player while it plays, at most once per interval and only once it moved enough.
+     *
+     * @param player - the player to follow.
+     * @param listener - receives the positions.
+     * @param minInterval - minimum time between two samples, in milliseconds.
+     * @param minChange - minimum change of the position between two samples, in seconds.
+     * @return a registration ending the subscription.
+     */
+    public HandlerRegistration subscribe( VideoPlayer player, Listener listener, double minInterval, double minChange ) {
+        Entry entry = find( player );
+        if( entry == null ) {
+            entry = new Entry( player );
+            entries.add( entry );
+        }
+
+        final Entry owner = entry;
+        final Subscription subscription = new Subscription( listener, minInterval, minChange );
+        owner.subscriptions.add( subscription );
+        owner.activeCount++;
+
+        return new HandlerRegistration() {
+            @Override
+            public void removeHandler() {
+                if( subscription.active ) {
+                    subscription.active = false;
+                    owner.activeCount--;
+                    if( owner.activeCount == 0 ) {
+                        owner.release();
+                    }
+                    if( !ticking ) {
+                        compact();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Gets the number of subscribed players currently playing.
+     */
+    public int getPlayingCount() {
+        return playingCount;
+    }
+
+    /**
+     * Gets the number of frames the clock has processed.
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Check if the clock is waiting for an animation frame.
+     */
+    public boolean isRunning() {
+        return frame != null;
+    }
+
+    private Entry find( VideoPlayer player ) {
+        for( Entry entry : entries ) {
+            if( ( entry.player == player ) && ( entry.activeCount > 0 ) ) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void tick() {
+        ticking = true;
+        tickCount++;
+
+        double now = Duration.currentTimeMillis();
+        for( int i = 0; i < entries.size(); i++ ) {
+            Entry entry = entries.get( i );
+            if( entry.playing ) {
+                if( entry.player.isReady() ) {
+                    entry.sample( now, false );
+                } else {
+                    // Torn down without a pause event, e.g. disposed offscreen
+                    setPlaying( entry, false );
+                }
+            }
+        }
+
+        ticking = false;
+        compact();
+        schedule();
+    }
+
+    private void schedule() {
+        if( ( frame == null ) && ( playingCount > 0 ) && !hidden ) {
+            frame = AnimationScheduler.get().requestAnimationFrame( frameCallback );
+        } else if( ( frame != null ) && ( ( playingCount == 0 ) || hidden ) ) {
+            frame.cancel();
+            frame = null;
+        }
+    }
+
+    private void compact() {
+        for( int i = entries.size() - 1; i >= 0; i-- ) {
+            Entry entry = entries.get( i );
+            if( entry.activeCount == 0 ) {
+                entries.remove( i );
+            } else {
+                for( int j = entry.subscriptions.size() - 1; j >= 0; j-- ) {
+                    if( !entry.subscriptions.get( j ).active ) {
+                        entry.subscriptions.remove( j );
+                    }
+                }
+            }
+        }
+    }
+
+    private void setPlaying( Entry entry, boolean playing ) {
+        if( entry.playing != playing ) {
+            entry.playing = playing;
+            playingCount += playing ? 1 : -1;
+            schedule();
+        }
+    }
+
+    private void onVisibilityChange( boolean hidden ) {
+        this.hidden = hidden;
+        schedule();
+    }
+
+    private native void listenVisibility() /*-{
+		var clock = this;
+
+		$doc.addEventListener('visibilitychange', $entry(function() {
+			clock.@com.ait.toolkit.videoplayer.client.FrameClock::onVisibilityChange(Z)(!!$doc.hidden);
+		}), false);
+    }-*/;
+
+    private static native boolean isDocumentHidden() /*-{
+		return !!$doc.hidden;
+    }-*/;
+
+    private static class Subscription {
+        private final Listener listener;
+        private final double minInterval;
+        private final double minChange;
+        private boolean active = true;
+        private double lastTime = Double.NEGATIVE_INFINITY;
+        private double lastPosition = Double.NaN;
+
+        Subscription( Listener listener, double minInterval, double minChange ) {
+            this.listener = listener;
+            this.minInterval = minInterval;
+            this.minChange = minChange;
+        }
+    }
+
+    private class Entry {
+        private final VideoPlayer player;
+        private final List<Subscription> subscriptions = new ArrayList<Subscription>();
+        private final List<HandlerRegistration> registrations = new ArrayList<HandlerRegistration>();
+        private boolean playing;
+        private int activeCount = 0;
+
+        Entry( final VideoPlayer player ) {
+            this.player = player;
+
+            registrations.add( player.addPlayEventHandler( new PlayHandler() {
+                @Override
+                public void onPlay( PlayEvent event ) {
+                    setPlaying( Entry.this, true );
+                }
+            } ) );
+            registrations.add( player.addPauseHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    setPlaying( Entry.this, false );
+                    sample( Duration.currentTimeMillis(), true );
+                }
+            } ) );
+            registrations.add( player.addEndedHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    setPlaying( Entry.this, false );
+                }
+            } ) );
+            registrations.add( player.addSeekedHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    sample( Duration.currentTimeMillis(), true );
+                }
+            } ) );
+            // Detaching unbinds the native listeners, so no pause event will come
+            registrations.add( player.addAttachHandler( new AttachEvent.Handler() {
+                @Override
+                public void onAttachOrDetach( AttachEvent event ) {
+                    if( !event.isAttached() ) {
+                        setPlaying( Entry.this, false );
+                    }
+                }
+            } ) );
+
+            setPlaying( this, player.isReady() && !player.isPaused() );
+        }
+
+        void sample( double now, boolean force ) {
+            double position = player.getCurrentTime();
+
+            for( int i = 0; i < subscriptions.size(); i++ ) {
+                Subscription subscription = subscriptions.get( i );
+                if( !subscription.active ) {
+                    continue;
+                }
+
+                boolean due = force
+                                || ( ( now - subscription.lastTime >= subscription.minInterval ) && !( Math.abs( position
+                                                - subscription.lastPosition ) < subscription.minChange ) );
+                if( due ) {
+                    subscription.lastTime = now;
+                    subscription.lastPosition = position;
+                    subscription.listener.onTick( player, position );
+                }
+            }
+        }
+
+        void release() {
+            for( HandlerRegistration registration : registrations ) {
+                registration.removeHandler();
+            }
+            registrations.clear();
+            setPlaying( this, false );
+        }
+    }
+}
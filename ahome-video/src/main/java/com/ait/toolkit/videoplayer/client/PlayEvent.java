@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.google.gwt.event.shared.GwtEvent;
+
+/**
+ * Fired whenever the media begins or resumes playback.
+ */
+public class PlayEvent extends GwtEvent<PlayHandler> {
+
+    private static final Type<PlayHandler> TYPE = new Type<PlayHandler>();
+
+    public static Type<PlayHandler> getType() {
+        return TYPE;
+    }
+
+    PlayEvent() {
+    }
+
+    public VideoPlayer getPlayer() {
+        return (VideoPlayer)getSource();
+    }
+
+    @Override
+    public Type<PlayHandler> getAssociatedType() {
+        return TYPE;
+    }
+
+    @Override
+    protected void dispatch( PlayHandler handler ) {
+        handler.onPlay( this );
+    }
+}
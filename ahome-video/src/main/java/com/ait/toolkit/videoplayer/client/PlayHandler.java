@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.google.gwt.event.shared.EventHandler;
+
+public interface PlayHandler extends EventHandler {
+    /**
+     * Handle PlayEvent.
+     *
+     * @param event - the event.
+     */
+    void onPlay( PlayEvent event );
+}
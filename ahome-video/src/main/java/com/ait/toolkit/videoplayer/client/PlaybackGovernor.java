@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+
+/**
+ * Caps the number of registered players playing at the same time, to keep low-end clients from saturating their CPU
+ * and hardware decoders. When a player starts while the limit is reached, the {@link PlaybackPolicy} picks the player
+ * to pause.
+ */
+public class PlaybackGovernor {
+
+    private static PlaybackGovernor instance;
+
+    /**
+     * Gets the governor shared by the page.
+     */
+    public static PlaybackGovernor get() {
+        if( instance == null ) {
+            instance = new PlaybackGovernor();
+        }
+        return instance;
+    }
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final List<VideoPlayer> playing = new ArrayList<VideoPlayer>();
+
+    private int maxPlaying = 2;
+    private PlaybackPolicy policy = PlaybackPolicy.PAUSE_OLDEST;
+
+    private int peakPlayingCount = 0;
+    private int preemptedCount = 0;
+    private int rejectedCount = 0;
+
+    /**
+     * Maximum number of players playing at the same time. 2 by default.
+     */
+    public void setMaxPlaying( int maxPlaying ) {
+        if( maxPlaying < 1 ) {
+            throw new IllegalArgumentException( "At least one player must be allowed to play" );
+        }
+        this.maxPlaying = maxPlaying;
+
+        while( playing.size() > maxPlaying ) {
+            playing.remove( 0 ).pause();
+            preemptedCount++;
+        }
+    }
+
+    public int getMaxPlaying() {
+        return maxPlaying;
+    }
+
+    /**
+     * Policy applied when the limit is reached. {@link PlaybackPolicy#PAUSE_OLDEST} by default.
+     */
+    public void setPolicy( PlaybackPolicy policy ) {
+        this.policy = policy;
+    }
+
+    /**
+     * Gets the number of players currently playing.
+     */
+    public int getPlayingCount() {
+        return playing.size();
+    }
+
+    /**
+     * Gets the highest number of players seen playing at the same time.
+     */
+    public int getPeakPlayingCount() {
+        return peakPlayingCount;
+    }
+
+    /**
+     * Gets the number of playing players paused to let another one start.
+     */
+    public int getPreemptedCount() {
+        return preemptedCount;
+    }
+
+    /**
+     * Gets the number of players paused as soon as they started.
+     */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public void resetCounters() {
+        peakPlayingCount = playing.size();
+        preemptedCount = 0;
+        rejectedCount = 0;
+    }
+
+    void register( VideoPlayer player ) {
+        Entry entry = new Entry( player );
+
+        entry.registrations[0] = player.addPlayHandler( new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                onPlay( player );
+            }
+        } );
+
+        VideoPlayerHandler stopHandler = new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                playing.remove( player );
+            }
+        };
+        entry.registrations[1] = player.addPauseHandler( stopHandler );
+        entry.registrations[2] = player.addEndedHandler( stopHandler );
+
+        entries.add( entry );
+    }
+
+    void unregister( VideoPlayer player ) {
+        for( int i = 0; i < entries.size(); i++ ) {
+            Entry entry = entries.get( i );
+
+            if( entry.player == player ) {
+                for( HandlerRegistration registration : entry.registrations ) {
+                    registration.removeHandler();
+                }
+                entries.remove( i );
+                break;
+            }
+        }
+
+        playing.remove( player );
+    }
+
+    private void onPlay( VideoPlayer player ) {
+        if( playing.contains( player ) ) {
+            return;
+        }
+
+        if( playing.size() >= maxPlaying ) {
+            VideoPlayer selected = policy.select( player, playing );
+
+            if( ( selected == player ) || ( selected == null ) ) {
+                rejectedCount++;
+                player.pause();
+                return;
+            }
+
+            playing.remove( selected );
+            preemptedCount++;
+            selected.pause();
+        }
+
+        playing.add( player );
+        peakPlayingCount = Math.max( peakPlayingCount, playing.size() );
+    }
+
+    private static class Entry {
+        private final VideoPlayer player;
+        private final HandlerRegistration[] registrations = new HandlerRegistration[3];
+
+        Entry( VideoPlayer player ) {
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.List;
+
+/**
+ * Decides what happens when a player starts while the {@link PlaybackGovernor} limit is already reached.
+ */
+public interface PlaybackPolicy {
+
+    /**
+     * Pause the player that has been playing for the longest time.
+     */
+    PlaybackPolicy PAUSE_OLDEST = new PlaybackPolicy() {
+        @Override
+        public VideoPlayer select( VideoPlayer starting, List<VideoPlayer> playing ) {
+            return playing.get( 0 );
+        }
+    };
+
+    /**
+     * Pause the player with the smallest fraction inside the viewport, the starting one included. On a tie, the
+     * starting player keeps playing.
+     */
+    PlaybackPolicy PAUSE_LEAST_VISIBLE = new PlaybackPolicy() {
+        @Override
+        public VideoPlayer select( VideoPlayer starting, List<VideoPlayer> playing ) {
+            VideoPlayer selected = starting;
+            double selectedVisibility = ViewportObserver.getVisibleFraction( starting );
+
+            for( VideoPlayer player : playing ) {
+                double visibility = ViewportObserver.getVisibleFraction( player );
+
+                if( visibility <= selectedVisibility ) {
+                    selected = player;
+                    selectedVisibility = visibility;
+                }
+            }
+
+            return selected;
+        }
+    };
+
+    /**
+     * Pause the player that is starting.
+     */
+    PlaybackPolicy REJECT = new PlaybackPolicy() {
+        @Override
+        public VideoPlayer select( VideoPlayer starting, List<VideoPlayer> playing ) {
+            return starting;
+        }
+    };
+
+    /**
+     * Selects the player to pause.
+     *
+     * @param starting - player that just started.
+     * @param playing - players already playing, the one playing for the longest time first.
+     * @return one of the playing players, or the starting one to reject it.
+     */
+    VideoPlayer select( VideoPlayer starting, List<VideoPlayer> playing );
+}
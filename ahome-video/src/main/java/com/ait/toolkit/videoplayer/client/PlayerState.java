@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Snapshot of the player state, filled in a single native call by {@link VideoPlayer#snapshot()}.
+ * <p>
+ * A player reuses the same instance for every snapshot, so values must be read before the next one is taken.
+ */
+public final class PlayerState extends JavaScriptObject {
+
+    protected PlayerState() {
+    }
+
+    static PlayerState create() {
+        return JavaScriptObject.createObject().cast();
+    }
+
+    /**
+     * Check if the values were read from a player. All values are zero (or false) when no player exists.
+     */
+    public native boolean isAvailable() /*-{
+		return !!this.available;
+    }-*/;
+
+    public native double getCurrentTime() /*-{
+		return this.currentTime;
+    }-*/;
+
+    public native double getDuration() /*-{
+		return this.duration;
+    }-*/;
+
+    public native double getRemainingTime() /*-{
+		return this.remainingTime;
+    }-*/;
+
+    /**
+     * Gets the percent (as a decimal) of the video that's been downloaded.
+     */
+    public native double getBufferedPercent() /*-{
+		return this.bufferedPercent;
+    }-*/;
+
+    public native boolean isPaused() /*-{
+		return this.paused;
+    }-*/;
+
+    public native boolean isMuted() /*-{
+		return this.muted;
+    }-*/;
+
+    public native boolean isSeeking() /*-{
+		return this.seeking;
+    }-*/;
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An entry of a {@link VideoPlaylist}: the alternative sources of one clip and its poster.
+ */
+public class PlaylistItem {
+
+    private final List<String> sources = new ArrayList<String>();
+    private final List<String> sourceType = new ArrayList<String>();
+    private String poster;
+
+    /**
+     * Add source for the clip. Type value could be from class VideoElement
+     * @param src
+     * @param type
+     */
+    public PlaylistItem addSource( String src, String type ) {
+        sources.add( src );
+        sourceType.add( type );
+        return this;
+    }
+
+    public PlaylistItem setPoster( String poster ) {
+        this.poster = poster;
+        return this;
+    }
+
+    public String getPoster() {
+        return poster;
+    }
+
+    /**
+     * Gets the url of the source the browser is expected to play: the first one in {@link SourceSelector} order.
+     */
+    public String getPreferredSource() {
+        if( sources.isEmpty() ) {
+            return null;
+        }
+        return sources.get( SourceSelector.select( sourceType ).get( 0 ) );
+    }
+
+    /**
+     * Gets the sources of the clip, in {@link SourceSelector} order for the given tech order.
+     */
+    VideoSource[] toVideoSources( String[] techOrder ) {
+        List<Integer> order = SourceSelector.select( sourceType, techOrder );
+        VideoSource[] result = new VideoSource[order.size()];
+        for( int i = 0; i < result.length; i++ ) {
+            result[i] = new VideoSource( sourceType.get( order.get( i ) ), sources.get( order.get( i ) ) );
+        }
+        return result;
+    }
+
+    /**
+     * Adds the sources and poster of the clip to the given player.
+     */
+    void applyTo( VideoPlayer player ) {
+        for( int i = 0; i < sources.size(); i++ ) {
+            player.addSource( sources.get( i ), sourceType.get( i ) );
+        }
+        if( poster != null ) {
+            player.setPoster( poster );
+        }
+    }
+}
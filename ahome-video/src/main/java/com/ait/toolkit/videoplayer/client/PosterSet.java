@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.Arrays;
+
+/**
+ * Poster candidates of the same image at several widths, from which a player picks the smallest one that still
+ * covers its size on the device screen.
+ */
+public class PosterSet {
+
+    private int length = 0;
+    private int[] widths = new int[4];
+    private String[] urls = new String[4];
+    private double aspectRatio = 16.0 / 9.0;
+
+    /**
+     * Adds a candidate.
+     *
+     * @param width - intrinsic width of the image, in pixels.
+     * @param url - url of the image.
+     */
+    public PosterSet add( int width, String url ) {
+        if( length == widths.length ) {
+            widths = Arrays.copyOf( widths, length * 2 );
+            urls = Arrays.copyOf( urls, length * 2 );
+        }
+
+        int i = length++;
+        while( ( i > 0 ) && ( widths[i - 1] > width ) ) {
+            widths[i] = widths[i - 1];
+            urls[i] = urls[i - 1];
+            i--;
+        }
+        widths[i] = width;
+        urls[i] = url;
+
+        return this;
+    }
+
+    /**
+     * Width to height ratio of the images, used to find the width covering a given height. 16/9 by default.
+     */
+    public void setAspectRatio( double aspectRatio ) {
+        this.aspectRatio = aspectRatio;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the url of the smallest candidate covering the given box, or of the largest one if none does.
+     *
+     * @param width - width of the box, in CSS pixels.
+     * @param height - height of the box, in CSS pixels.
+     * @param pixelRatio - device pixels per CSS pixel.
+     * @return the url, or null if the set is empty.
+     */
+    public String select( double width, double height, double pixelRatio ) {
+        if( length == 0 ) {
+            return null;
+        }
+
+        double required = Math.max( width, height * aspectRatio ) * pixelRatio;
+        for( int i = 0; i < length; i++ ) {
+            if( widths[i] >= required ) {
+                return urls[i];
+            }
+        }
+        return urls[length - 1];
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.gwt.dom.client.MediaElement;
+import com.google.gwt.event.logical.shared.ResizeEvent;
+import com.google.gwt.event.logical.shared.ResizeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.Window.ScrollEvent;
+import com.google.gwt.user.client.Window.ScrollHandler;
+
+/**
+ * Page-wide scheduler deciding how eagerly each registered player preloads its media.
+ * <p>
+ * Players that have not started playing are ranked by how much of them is visible, how close they are to the
+ * viewport and an application supplied hint ({@link VideoPlayer#setPreloadHint(double)}). The best ranked players are
+ * promoted to {@link MediaElement#PRELOAD_AUTO}, within a cap on concurrent preloads and an estimated byte budget, the
+ * next ones to {@link MediaElement#PRELOAD_METADATA}, and the others stay at {@link MediaElement#PRELOAD_NONE}.
+ */
+public class PreloadScheduler {
+
+    private static final int RANK_DELAY = 150;
+
+    private static PreloadScheduler instance;
+
+    /**
+     * Gets the scheduler shared by the page.
+     */
+    public static PreloadScheduler get() {
+        if( instance == null ) {
+            instance = new PreloadScheduler();
+        }
+        return instance;
+    }
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    private int maxAutoPreloads = 1;
+    private int maxMetadataPreloads = 4;
+    private double byteBudget = 20 * 1024 * 1024;
+    private double bytesPerSecond = 1500000 / 8;
+    private double preloadSeconds = 30;
+
+    private HandlerRegistration scrollRegistration;
+    private HandlerRegistration resizeRegistration;
+
+    private final Timer rankTimer = new Timer() {
+        @Override
+        public void run() {
+            rank();
+        }
+    };
+
+    /**
+     * Maximum number of players preloading with {@link MediaElement#PRELOAD_AUTO}. 1 by default.
+     */
+    public void setMaxAutoPreloads( int maxAutoPreloads ) {
+        this.maxAutoPreloads = maxAutoPreloads;
+        schedule();
+    }
+
+    /**
+     * Maximum number of players preloading with {@link MediaElement#PRELOAD_METADATA}. 4 by default.
+     */
+    public void setMaxMetadataPreloads( int maxMetadataPreloads ) {
+        this.maxMetadataPreloads = maxMetadataPreloads;
+        schedule();
+    }
+
+    /**
+     * Total number of bytes the players promoted to {@link MediaElement#PRELOAD_AUTO} are expected to download. 20MB
+     * by default.
+     */
+    public void setByteBudget( double byteBudget ) {
+        this.byteBudget = byteBudget;
+        schedule();
+    }
+
+    /**
+     * Bitrate used to estimate the bytes downloaded by a preloading player. 1.5Mbps by default.
+     * @param bitsPerSecond the assumed bitrate
+     */
+    public void setEstimatedBitrate( double bitsPerSecond ) {
+        this.bytesPerSecond = bitsPerSecond / 8;
+        schedule();
+    }
+
+    /**
+     * Number of seconds a browser is expected to buffer when preloading with {@link MediaElement#PRELOAD_AUTO}. 30 by
+     * default.
+     */
+    public void setEstimatedPreloadSeconds( double preloadSeconds ) {
+        this.preloadSeconds = preloadSeconds;
+        schedule();
+    }
+
+    /**
+     * Gets the number of players currently promoted to {@link MediaElement#PRELOAD_AUTO}.
+     */
+    public int getAutoPreloadCount() {
+        return count( MediaElement.PRELOAD_AUTO );
+    }
+
+    /**
+     * Gets the number of players currently promoted to {@link MediaElement#PRELOAD_METADATA}.
+     */
+    public int getMetadataPreloadCount() {
+        return count( MediaElement.PRELOAD_METADATA );
+    }
+
+    void register( VideoPlayer player ) {
+        final Entry entry = new Entry( player );
+
+        entry.playRegistration = player.addPlayHandler( new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                entry.started = true;
+                schedule();
+            }
+        } );
+
+        entries.add( entry );
+
+        if( scrollRegistration == null ) {
+            scrollRegistration = Window.addWindowScrollHandler( new ScrollHandler() {
+                @Override
+                public void onWindowScroll( ScrollEvent event ) {
+                    schedule();
+                }
+            } );
+            resizeRegistration = Window.addResizeHandler( new ResizeHandler() {
+                @Override
+                public void onResize( ResizeEvent event ) {
+                    schedule();
+                }
+            } );
+        }
+
+        schedule();
+    }
+
+    void unregister( VideoPlayer player ) {
+        for( int i = 0; i < entries.size(); i++ ) {
+            Entry entry = entries.get( i );
+
+            if( entry.player == player ) {
+                entry.playRegistration.removeHandler();
+                entries.remove( i );
+                break;
+            }
+        }
+
+        if( entries.isEmpty() && ( scrollRegistration != null ) ) {
+            scrollRegistration.removeHandler();
+            resizeRegistration.removeHandler();
+            scrollRegistration = null;
+            resizeRegistration = null;
+            rankTimer.cancel();
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * Ranks the players again shortly. Calls made in quick succession (e.g. while scrolling) are coalesced.
+     */
+    public void schedule() {
+        if( !entries.isEmpty() ) {
+            rankTimer.schedule( RANK_DELAY );
+        }
+    }
+
+    private void rank() {
+        int viewportTop = Window.getScrollTop();
+        int viewportHeight = Math.max( Window.getClientHeight(), 1 );
+
+        List<Entry> candidates = new ArrayList<Entry>( entries.size() );
+
+        for( Entry entry : entries ) {
+            if( !entry.started ) {
+                entry.score = score( entry.player, viewportTop, viewportHeight );
+                candidates.add( entry );
+            }
+        }
+
+        Collections.sort( candidates, new Comparator<Entry>() {
+            @Override
+            public int compare( Entry o1, Entry o2 ) {
+                return Double.compare( o2.score, o1.score );
+            }
+        } );
+
+        int autoCount = 0;
+        int metadataCount = 0;
+        double bytes = 0;
+
+        for( Entry entry : candidates ) {
+            double cost = Math.max( entry.player.getBufferedEnd(), preloadSeconds ) * bytesPerSecond;
+            String level;
+
+            if( ( autoCount < maxAutoPreloads ) && ( ( bytes + cost ) <= byteBudget ) ) {
+                level = MediaElement.PRELOAD_AUTO;
+                autoCount++;
+                bytes += cost;
+            } else if( metadataCount < maxMetadataPreloads ) {
+                level = MediaElement.PRELOAD_METADATA;
+                metadataCount++;
+            } else {
+                level = MediaElement.PRELOAD_NONE;
+            }
+
+            if( !level.equals( entry.level ) ) {
+                entry.level = level;
+                entry.player.applyPreload( level );
+            }
+        }
+    }
+
+    /**
+     * Scores a player by its visible fraction, its proximity to the viewport and its application hint.
+     */
+    private static double score( VideoPlayer player, int viewportTop, int viewportHeight ) {
+        int top = player.getAbsoluteTop();
+        int height = Math.max( player.getOffsetHeight(), 1 );
+        int bottom = top + height;
+        int viewportBottom = viewportTop + viewportHeight;
+
+        double visibility = ViewportObserver.getVisibleFraction( player );
+
+        double distance = 0;
+        if( bottom < viewportTop ) {
+            distance = viewportTop - bottom;
+        } else if( top > viewportBottom ) {
+            distance = top - viewportBottom;
+        }
+        double proximity = 1 / ( 1 + ( distance / viewportHeight ) );
+
+        return visibility + proximity + player.getPreloadHint();
+    }
+
+    private int count( String level ) {
+        int count = 0;
+        for( Entry entry : entries ) {
+            if( !entry.started && level.equals( entry.level ) ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static class Entry {
+        private final VideoPlayer player;
+        private HandlerRegistration playRegistration;
+        private boolean started = false;
+        private String level;
+        private double score;
+
+        Entry( VideoPlayer player ) {
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.google.gwt.event.shared.GwtEvent;
+
+/**
+ * Fired while the browser is downloading the media. A player fires the same instance every time, so handlers must not
+ * keep it.
+ */
+public class ProgressEvent extends GwtEvent<ProgressHandler> {
+
+    private static final Type<ProgressHandler> TYPE = new Type<ProgressHandler>();
+
+    public static Type<ProgressHandler> getType() {
+        return TYPE;
+    }
+
+    private double bufferedEnd;
+
+    ProgressEvent() {
+    }
+
+    void setBufferedEnd( double bufferedEnd ) {
+        this.bufferedEnd = bufferedEnd;
+    }
+
+    /**
+     * Gets the ending time, in seconds, of the last buffered time range.
+     */
+    public double getBufferedEnd() {
+        return bufferedEnd;
+    }
+
+    public VideoPlayer getPlayer() {
+        return (VideoPlayer)getSource();
+    }
+
+    @Override
+    public Type<ProgressHandler> getAssociatedType() {
+        return TYPE;
+    }
+
+    @Override
+    protected void dispatch( ProgressHandler handler ) {
+        handler.onProgress( this );
+    }
+}
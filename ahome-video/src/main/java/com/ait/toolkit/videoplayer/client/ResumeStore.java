@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.storage.client.Storage;
+import com.google.gwt.user.client.Window;
+
+/**
+ * Remembers where the user stopped watching each video, in the local storage of the browser.
+ * <p>
+ * The position is written at most once per write interval while playing, and right away on pause or when the page
+ * closes, instead of on every <code>timeupdate</code>. Positions too close to the beginning or to the end of the video
+ * are not worth resuming and are cleared. Nothing is written before the remembered position has been restored, so the
+ * first <code>timeupdate</code> events, fired at the beginning of the video, do not clear it.
+ */
+public class ResumeStore {
+
+    private static final String DEFAULT_PREFIX = "videoplayer.resume.";
+
+    private final String prefix;
+    private final Storage storage = Storage.getLocalStorageIfSupported();
+    private final List<Tracker> trackers = new ArrayList<Tracker>();
+    private HandlerRegistration closingRegistration;
+
+    private int writeInterval = 5000;
+    private double minPosition = 5;
+    private double endMargin = 10;
+
+    public ResumeStore() {
+        this( DEFAULT_PREFIX );
+    }
+
+    /**
+     * @param prefix - prepended to the video keys in the local storage.
+     */
+    public ResumeStore( String prefix ) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Check if the browser has a local storage; without one the store remembers nothing.
+     */
+    public boolean isSupported() {
+        return storage != null;
+    }
+
+    /**
+     * Minimum time, in milliseconds, between two writes while playing. 5 seconds by default.
+     */
+    public void setWriteInterval( int writeInterval ) {
+        this.writeInterval = writeInterval;
+    }
+
+    /**
+     * Positions, in seconds, before this one are not remembered. 5 by default.
+     */
+    public void setMinPosition( double minPosition ) {
+        this.minPosition = minPosition;
+    }
+
+    /**
+     * Positions within this many seconds of the end are not remembered. 10 by default.
+     */
+    public void setEndMargin( double endMargin ) {
+        this.endMargin = endMargin;
+    }
+
+    /**
+     * Gets the remembered position of a video, in seconds, or 0 if there is none.
+     *
+     * @param key - identifies the video, its url for instance.
+     */
+    public double getPosition( String key ) {
+        if( storage == null ) {
+            return 0;
+        }
+
+        String value = storage.getItem( prefix + key );
+        if( value == null ) {
+            return 0;
+        }
+
+        try {
+            return Double.parseDouble( value );
+        } catch( NumberFormatException e ) {
+            return 0;
+        }
+    }
+
+    /**
+     * Forgets the position of a video.
+     */
+    public void clear( String key ) {
+        if( storage != null ) {
+            storage.removeItem( prefix + key );
+        }
+    }
+
+    /**
+     * Starts the player at the remembered position of the video and keeps that position up to date while it plays.
+     * Call it before the player is attached.
+     *
+     * @param player - the player of the video.
+     * @param key - identifies the video, its url for instance.
+     * @return a registration that stops tracking the player, writing its last position.
+     */
+    public HandlerRegistration attach( VideoPlayer player, String key ) {
+        double position = getPosition( key );
+        if( position > 0 ) {
+            player.setStartPosition( position );
+        }
+
+        final Tracker tracker = new Tracker( player, key, position );
+        trackers.add( tracker );
+
+        if( closingRegistration == null ) {
+            closingRegistration = Window.addWindowClosingHandler( new Window.ClosingHandler() {
+                @Override
+                public void onWindowClosing( Window.ClosingEvent event ) {
+                    for( Tracker tracker : trackers ) {
+                        tracker.write();
+                    }
+                }
+            } );
+        }
+
+        return new HandlerRegistration() {
+            @Override
+            public void removeHandler() {
+                if( trackers.remove( tracker ) ) {
+                    tracker.release();
+                }
+                if( trackers.isEmpty() && ( closingRegistration != null ) ) {
+                    closingRegistration.removeHandler();
+                    closingRegistration = null;
+                }
+            }
+        };
+    }
+
+    private void store( String key, double position, double duration ) {
+        if( storage == null ) {
+            return;
+        }
+
+        if( ( position < minPosition ) || ( ( duration > 0 ) && ( position > duration - endMargin ) ) ) {
+            storage.removeItem( prefix + key );
+        } else {
+            storage.setItem( prefix + key, String.valueOf( Math.floor( position ) ) );
+        }
+    }
+
+    private class Tracker {
+        private final VideoPlayer player;
+        private final String key;
+        private final List<HandlerRegistration> registrations = new ArrayList<HandlerRegistration>();
+        private double lastPosition = -1;
+        private double lastWrite = Duration.currentTimeMillis();
+        private double restoring;
+
+        /**
+         * @param restoring - remembered position the player starts at, 0 if none.
+         */
+        Tracker( VideoPlayer player, String key, double restoring ) {
+            this.player = player;
+            this.key = key;
+            this.restoring = restoring;
+
+            registrations.add( player.addTimeUpdateEventHandler( new TimeUpdateHandler() {
+                @Override
+                public void onTimeUpdate( TimeUpdateEvent event ) {
+                    if( Tracker.this.restoring > 0 ) {
+                        // Until the start position is applied, or played past, the events report the beginning
+                        if( event.getCurrentTime() < ( Tracker.this.restoring - 1 ) ) {
+                            return;
+                        }
+                        Tracker.this.restoring = 0;
+                    }
+
+                    lastPosition = event.getCurrentTime();
+
+                    double now = Duration.currentTimeMillis();
+                    if( now - lastWrite >= writeInterval ) {
+                        write();
+                    }
+                }
+            } ) );
+            registrations.add( player.addSeekedHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    // Either the start position was applied or the user moved on
+                    Tracker.this.restoring = 0;
+                }
+            } ) );
+            registrations.add( player.addPauseHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    write();
+                }
+            } ) );
+            registrations.add( player.addEndedHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    lastPosition = -1;
+                    clear( Tracker.this.key );
+                }
+            } ) );
+        }
+
+        void write() {
+            if( lastPosition < 0 ) {
+                return;
+            }
+            lastWrite = Duration.currentTimeMillis();
+            store( key, lastPosition, player.getDuration() );
+        }
+
+        void release() {
+            write();
+            for( HandlerRegistration registration : registrations ) {
+                registration.removeHandler();
+            }
+            registrations.clear();
+        }
+    }
+}
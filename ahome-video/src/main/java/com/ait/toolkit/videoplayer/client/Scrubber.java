@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ait.toolkit.videoplayer.client.qoe.Histogram;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Timer;
+
+/**
+ * Drives the seeks of a player while the user drags a seek bar.
+ * <p>
+ * Seek requests are coalesced: while a seek is in flight, newer targets replace each other and only the latest one is
+ * issued once the player reports the seek done. While dragging, seeks can use the browser's approximate fastSeek or
+ * snap to the nearest known keyframe, both much cheaper to decode; the final position is sought exactly on release.
+ * <p>
+ * A seek the player does not report done within the {@link #setSeekTimeout(int) seek timeout}, or cut short by an
+ * error or a source change, is given up so the next target can be issued. Seeks made by others are ignored.
+ */
+public class Scrubber {
+
+    private final VideoPlayer player;
+    private final List<HandlerRegistration> registrations = new ArrayList<HandlerRegistration>();
+    private final Timer timeout = new Timer() {
+        @Override
+        public void run() {
+            onSeekDone( false );
+        }
+    };
+
+    private boolean fastSeek = false;
+    private double[] keyframes;
+    private int seekTimeout = 2000;
+
+    private boolean dragging = false;
+    private boolean resume = false;
+    private boolean inFlight = false;
+    private double inFlightSince;
+    private int ownSeekings = 0;
+    private boolean superseded = false;
+    private double pendingTarget = -1;
+    private boolean pendingExact = false;
+
+    private int seekCount = 0;
+    private int coalescedCount = 0;
+    private final Histogram latencyHistogram = new Histogram( 25, 50, 100, 250, 500, 1000, 2000 );
+
+    public Scrubber( VideoPlayer player ) {
+        this.player = player;
+
+        registrations.add( player.addSeekingHandler( new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                onSeeking();
+            }
+        } ) );
+        registrations.add( player.addSeekedHandler( new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                if( inFlight ) {
+                    onSeekDone( !superseded );
+                }
+            }
+        } ) );
+
+        // The media is gone, along with any seek in flight
+        VideoPlayerHandler reset = new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                reset();
+            }
+        };
+        registrations.add( player.addErrorHandler( reset ) );
+        registrations.add( player.addEmptiedHandler( reset ) );
+        registrations.add( player.addLoadStartHandler( reset ) );
+    }
+
+    /**
+     * Use the browser's fastSeek, when available, while dragging. False by default.
+     */
+    public void setFastSeek( boolean fastSeek ) {
+        this.fastSeek = fastSeek;
+    }
+
+    /**
+     * Snap the seeks made while dragging to the nearest of the given keyframe times, in seconds.
+     *
+     * @param keyframes - keyframe times, or null to seek to the exact targets.
+     */
+    public void setKeyframes( double[] keyframes ) {
+        if( keyframes == null ) {
+            this.keyframes = null;
+        } else {
+            this.keyframes = keyframes.clone();
+            Arrays.sort( this.keyframes );
+        }
+    }
+
+    /**
+     * Milliseconds after which a seek not reported done is given up. 2s by default.
+     */
+    public void setSeekTimeout( int seekTimeout ) {
+        this.seekTimeout = seekTimeout;
+    }
+
+    /**
+     * Starts a drag: playback is paused until {@link #end(double)}.
+     */
+    public void begin() {
+        dragging = true;
+        resume = !player.isPaused();
+        player.pause();
+    }
+
+    /**
+     * Moves the playhead while dragging.
+     *
+     * @param time - target, in seconds.
+     */
+    public void scrubTo( double time ) {
+        request( snap( time ), false );
+    }
+
+    /**
+     * Ends the drag with an exact seek, and resumes playback if it was playing when the drag began.
+     *
+     * @param time - final position, in seconds.
+     */
+    public void end( double time ) {
+        dragging = false;
+        request( time, true );
+    }
+
+    /**
+     * Gets the number of seeks issued to the player.
+     */
+    public int getSeekCount() {
+        return seekCount;
+    }
+
+    /**
+     * Gets the number of requested targets replaced by a newer one before being issued.
+     */
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Gets the latencies, in milliseconds, between issuing a seek and the player reporting it done.
+     */
+    public Histogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * Stops listening to the player.
+     */
+    public void release() {
+        timeout.cancel();
+        for( HandlerRegistration registration : registrations ) {
+            registration.removeHandler();
+        }
+        registrations.clear();
+    }
+
+    private void request( double time, boolean exact ) {
+        if( inFlight ) {
+            if( pendingTarget >= 0 ) {
+                coalescedCount++;
+            }
+            pendingTarget = time;
+            pendingExact = exact;
+        } else {
+            issue( time, exact );
+        }
+    }
+
+    private void issue( double time, boolean exact ) {
+        inFlight = true;
+        inFlightSince = Duration.currentTimeMillis();
+        ownSeekings++;
+        superseded = false;
+        seekCount++;
+        timeout.schedule( seekTimeout );
+        player.seek( time, fastSeek && !exact );
+    }
+
+    private void onSeeking() {
+        if( ownSeekings > 0 ) {
+            ownSeekings--;
+        } else if( inFlight ) {
+            // Someone else sought: ours is aborted and the next seeked event reports theirs
+            superseded = true;
+        }
+    }
+
+    /**
+     * Ends the seek in flight, and issues the pending target or resumes playback.
+     *
+     * @param completed - true if the player reported the seek done, false if it was given up or superseded.
+     */
+    private void onSeekDone( boolean completed ) {
+        timeout.cancel();
+        inFlight = false;
+        superseded = false;
+        ownSeekings = 0;
+
+        if( completed ) {
+            latencyHistogram.record( Duration.currentTimeMillis() - inFlightSince );
+        }
+
+        if( pendingTarget >= 0 ) {
+            double target = pendingTarget;
+            pendingTarget = -1;
+            issue( target, pendingExact );
+        } else if( !dragging && resume ) {
+            resume = false;
+            player.play();
+        }
+    }
+
+    private void reset() {
+        timeout.cancel();
+        inFlight = false;
+        superseded = false;
+        ownSeekings = 0;
+        pendingTarget = -1;
+        resume = false;
+    }
+
+    private double snap( double time ) {
+        if( ( keyframes == null ) || ( keyframes.length == 0 ) ) {
+            return time;
+        }
+
+        int index = Arrays.binarySearch( keyframes, time );
+        if( index >= 0 ) {
+            return keyframes[index];
+        }
+
+        int after = -index - 1;
+        if( after == 0 ) {
+            return keyframes[0];
+        }
+        if( after == keyframes.length ) {
+            return keyframes[keyframes.length - 1];
+        }
+        return ( time - keyframes[after - 1] ) <= ( keyframes[after] - time ) ? keyframes[after - 1] : keyframes[after];
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.MediaElement;
+
+/**
+ * Orders the sources of a player so that the browser tries the cheapest playable one first.
+ * <p>
+ * canPlayType is probed once per MIME/codec string and the answer is cached for the whole page. Sources the browser
+ * cannot play natively are dropped when at least one source can be and the HTML5 tech comes first, since it will then be
+ * used. Playable sources are ranked by decoding cost and then by support ("probably" before "maybe").
+ */
+public final class SourceSelector {
+
+    private static final Map<String, Integer> SUPPORT = new HashMap<String, Integer>();
+    private static final Map<String, Integer> DECODE_COSTS = new HashMap<String, Integer>();
+    private static final int DEFAULT_DECODE_COST = 10;
+
+    private static MediaElement probe;
+
+    static {
+        // Widely hardware decoded codecs first
+        DECODE_COSTS.put( "avc1", 1 );
+        DECODE_COSTS.put( "video/mp4", 2 );
+        DECODE_COSTS.put( "hvc1", 3 );
+        DECODE_COSTS.put( "vp8", 4 );
+        DECODE_COSTS.put( "video/webm", 5 );
+        DECODE_COSTS.put( "vp9", 6 );
+        DECODE_COSTS.put( "av01", 7 );
+        DECODE_COSTS.put( "video/ogg", 8 );
+    }
+
+    private SourceSelector() {
+    }
+
+    /**
+     * Sets the decoding cost of a MIME type or codec prefix (e.g. "video/webm" or "vp9"). Lower is cheaper. The cost of
+     * a source is the cost of its codecs when they are given, of its MIME type otherwise.
+     */
+    public static void setDecodeCost( String typeOrCodec, int cost ) {
+        DECODE_COSTS.put( typeOrCodec.toLowerCase(), cost );
+    }
+
+    /**
+     * Gets the cached canPlayType answer for the given type: 2 for "probably", 1 for "maybe", 0 otherwise.
+     */
+    public static int getSupport( String type ) {
+        Integer support = SUPPORT.get( type );
+
+        if( support == null ) {
+            if( probe == null ) {
+                probe = Document.get().createVideoElement();
+            }
+
+            String answer = probe.canPlayType( type );
+            support = MediaElement.CAN_PLAY_PROBABLY.equals( answer ) ? 2 : MediaElement.CAN_PLAY_MAYBE.equals( answer ) ? 1 : 0;
+            SUPPORT.put( type, support );
+        }
+
+        return support;
+    }
+
+    /**
+     * Check if at least one of the given types can be played natively.
+     */
+    public static boolean isAnyPlayable( List<String> types ) {
+        for( String type : types ) {
+            if( getSupport( type ) > 0 ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the indexes of the sources to use, in the order they should be tried, for the default tech order (HTML5
+     * first).
+     *
+     * @param types - MIME type (with optional codecs parameter) of each source.
+     */
+    public static List<Integer> select( List<String> types ) {
+        return select( types, null );
+    }
+
+    /**
+     * Gets the indexes of the sources to use, in the order they should be tried.
+     * <p>
+     * Sources are only pruned and reordered when the HTML5 tech comes first in the tech order: when another tech (e.g.
+     * Flash) is tried first, every source is kept in the given order since it may play them.
+     *
+     * @param types - MIME type (with optional codecs parameter) of each source.
+     * @param techOrder - tech order of the player, or null for the videojs default.
+     */
+    public static List<Integer> select( final List<String> types, String[] techOrder ) {
+        List<Integer> order = new ArrayList<Integer>( types.size() );
+        boolean prune = isHtml5First( techOrder ) && isAnyPlayable( types );
+
+        for( int i = 0; i < types.size(); i++ ) {
+            if( !prune || ( getSupport( types.get( i ) ) > 0 ) ) {
+                order.add( i );
+            }
+        }
+
+        if( prune ) {
+            Collections.sort( order, new Comparator<Integer>() {
+                @Override
+                public int compare( Integer o1, Integer o2 ) {
+                    String type1 = types.get( o1 );
+                    String type2 = types.get( o2 );
+
+                    int result = getDecodeCost( type1 ) - getDecodeCost( type2 );
+                    if( result == 0 ) {
+                        result = getSupport( type2 ) - getSupport( type1 );
+                    }
+                    return result;
+                }
+            } );
+        }
+
+        return order;
+    }
+
+    /**
+     * Check if the HTML5 tech is the first one tried with the given tech order.
+     */
+    private static boolean isHtml5First( String[] techOrder ) {
+        return ( techOrder == null ) || ( techOrder.length == 0 ) || "html5".equalsIgnoreCase( techOrder[0] );
+    }
+
+    /**
+     * Gets the cost of decoding the given type. When codecs are given, the cost is the one of the most expensive codec
+     * known to the cost table (audio codecs are usually not listed); otherwise, or when none of them is known, it is the
+     * cost of the MIME type.
+     */
+    static int getDecodeCost( String type ) {
+        String value = type.toLowerCase();
+        int semicolon = value.indexOf( ';' );
+        String mimeType = ( semicolon < 0 ? value : value.substring( 0, semicolon ) ).trim();
+
+        int codecs = value.indexOf( "codecs=" );
+        if( codecs >= 0 ) {
+            int cost = -1;
+            for( String codec : value.substring( codecs + "codecs=".length() ).split( "[,;\"'\\s]+" ) ) {
+                Integer codecCost = lookupCost( codec );
+                if( codecCost != null ) {
+                    cost = Math.max( cost, codecCost );
+                }
+            }
+            if( cost >= 0 ) {
+                return cost;
+            }
+        }
+
+        Integer mimeTypeCost = lookupCost( mimeType );
+        return mimeTypeCost != null ? mimeTypeCost : DEFAULT_DECODE_COST;
+    }
+
+    /**
+     * Gets the cost of the longest entry the given MIME type or codec starts with, or null if there is none.
+     */
+    private static Integer lookupCost( String part ) {
+        Integer cost = null;
+        int length = 0;
+
+        if( part.length() > 0 ) {
+            for( Map.Entry<String, Integer> entry : DECODE_COSTS.entrySet() ) {
+                if( part.startsWith( entry.getKey() ) && ( entry.getKey().length() > length ) ) {
+                    cost = entry.getValue();
+                    length = entry.getKey().length();
+                }
+            }
+        }
+
+        return cost;
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.dom.client.MediaElement;
+import com.google.gwt.user.client.Timer;
+
+/**
+ * Keeps several players in lockstep with a master player, e.g. for a monitoring wall.
+ * <p>
+ * On each tick the group reads the master position and every member position in the same pass, and records the drift
+ * of each member. Small drifts are absorbed gently, by running the member slightly faster or slower than the master
+ * for a while; only a drift past the hard threshold makes the member seek, ahead of the master by the time the seek is
+ * expected to take. Group play, pause and seek wait until every player has enough data to play before starting them
+ * together, and make the players that have not fetched anything yet start loading.
+ */
+public class SyncGroup {
+
+    private static final int HAVE_NOTHING = 0;
+    private static final int HAVE_FUTURE_DATA = 3;
+
+    private final VideoPlayer master;
+    private final List<Member> members = new ArrayList<Member>();
+
+    private final Timer ticker = new Timer() {
+        @Override
+        public void run() {
+            tick();
+        }
+    };
+
+    private int tickInterval = 250;
+    private double tolerance = 0.04;
+    private double hardThreshold = 1;
+    private double correctionWindow = 2;
+    private double maxNudge = 0.1;
+    private double seekLatency = 0.1;
+
+    private boolean playing = false;
+    private boolean waiting = false;
+
+    /**
+     * @param master - the player the others follow.
+     */
+    public SyncGroup( VideoPlayer master ) {
+        this.master = master;
+    }
+
+    /**
+     * Adds a member following the master.
+     */
+    public void add( VideoPlayer player ) {
+        if( ( player != master ) && ( find( player ) == null ) ) {
+            members.add( new Member( player ) );
+        }
+    }
+
+    public void remove( VideoPlayer player ) {
+        Member member = find( player );
+        if( member != null ) {
+            members.remove( member );
+            member.resetRate();
+        }
+    }
+
+    public VideoPlayer getMaster() {
+        return master;
+    }
+
+    /**
+     * Gets the drift statistics of a member, or null if the player is not a member.
+     */
+    public DriftStats getStats( VideoPlayer player ) {
+        Member member = find( player );
+        return member == null ? null : member.stats;
+    }
+
+    /**
+     * Time between two drift measurements, in milliseconds. 250 by default.
+     */
+    public void setTickInterval( int tickInterval ) {
+        this.tickInterval = tickInterval;
+        if( ticker.isRunning() ) {
+            ticker.scheduleRepeating( tickInterval );
+        }
+    }
+
+    /**
+     * Drift, in seconds, left uncorrected. 0.04 (one frame at 25fps) by default.
+     */
+    public void setTolerance( double tolerance ) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Drift, in seconds, past which a member seeks to the master position instead of changing its rate. 1 by default.
+     */
+    public void setHardThreshold( double hardThreshold ) {
+        this.hardThreshold = hardThreshold;
+    }
+
+    /**
+     * Time, in seconds, over which a drift is absorbed by the rate change. 2 by default.
+     */
+    public void setCorrectionWindow( double correctionWindow ) {
+        this.correctionWindow = correctionWindow;
+    }
+
+    /**
+     * Largest change of the playback rate used for corrections, e.g. 0.1 for rates from 0.9 to 1.1. 0.1 by default.
+     */
+    public void setMaxNudge( double maxNudge ) {
+        this.maxNudge = maxNudge;
+    }
+
+    /**
+     * Initial estimate, in seconds, of the time a member takes to seek. Each member then learns its own from the drift
+     * left after its resyncs. 0.1 by default.
+     */
+    public void setSeekLatency( double seekLatency ) {
+        this.seekLatency = seekLatency;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * Check if the group waits for a player to be able to play before starting.
+     */
+    public boolean isWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Starts every player together, once all of them can play.
+     */
+    public void play() {
+        playing = true;
+        waiting = true;
+        ticker.scheduleRepeating( tickInterval );
+        tick();
+    }
+
+    /**
+     * Pauses every player and resets their playback rate.
+     */
+    public void pause() {
+        playing = false;
+        waiting = false;
+        ticker.cancel();
+
+        master.pause();
+        for( Member member : members ) {
+            member.player.pause();
+            member.resetRate();
+        }
+    }
+
+    /**
+     * Moves every player to the given position. Playback resumes once all of them can play again, if the group was
+     * playing. Otherwise the group does not wait for the players, the next {@link #play()} does.
+     *
+     * @param time - in seconds.
+     */
+    public void seek( double time ) {
+        master.pause();
+        master.setCurrentTime( ( float ) time );
+        for( Member member : members ) {
+            member.player.pause();
+            member.player.setCurrentTime( ( float ) time );
+            member.resetRate();
+        }
+
+        if( playing ) {
+            waiting = true;
+            ticker.scheduleRepeating( tickInterval );
+        }
+    }
+
+    private void tick() {
+        if( waiting ) {
+            // Check every player, so that all of them are loading while the group waits
+            boolean ready = canPlay( master );
+            for( Member member : members ) {
+                ready &= canPlay( member.player );
+            }
+            if( !ready ) {
+                return;
+            }
+
+            waiting = false;
+            master.play();
+            for( Member member : members ) {
+                member.player.play();
+            }
+            return;
+        }
+
+        if( !playing || master.isPaused() ) {
+            return;
+        }
+
+        double reference = master.getCurrentTime();
+        double rate = getMasterRate();
+        for( Member member : members ) {
+            // Members paused (or ended) on their own are left alone instead of being nudged forever
+            if( member.player.isReady() && !member.player.isSeeking() && !member.player.isPaused() ) {
+                member.correct( member.player.getCurrentTime() - reference, reference, rate );
+            }
+        }
+    }
+
+    private double getMasterRate() {
+        double rate = master.getPlaybackRate();
+        return rate > 0 ? rate : 1;
+    }
+
+    /**
+     * Check if the player can play right away, and make it start loading if it has not fetched anything yet, e.g.
+     * because its preload is {@link MediaElement#PRELOAD_NONE}.
+     */
+    private static boolean canPlay( VideoPlayer player ) {
+        if( !player.isReady() ) {
+            return false;
+        }
+
+        int readyState = player.getReadyState();
+        if( readyState == HAVE_NOTHING ) {
+            player.applyPreload( MediaElement.PRELOAD_AUTO );
+        }
+        return ( readyState >= HAVE_FUTURE_DATA ) && !player.snapshot().isSeeking();
+    }
+
+    private Member find( VideoPlayer player ) {
+        for( Member member : members ) {
+            if( member.player == player ) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    private class Member {
+        private final VideoPlayer player;
+        private final DriftStats stats = new DriftStats();
+        private double seekLatency = SyncGroup.this.seekLatency;
+        private boolean resyncing = false;
+
+        Member( VideoPlayer player ) {
+            this.player = player;
+        }
+
+        /**
+         * @param drift - member position minus master position, in seconds.
+         * @param reference - master position, in seconds.
+         * @param masterRate - master playback rate.
+         */
+        void correct( double drift, double reference, double masterRate ) {
+            stats.record( drift );
+
+            if( resyncing ) {
+                // The drift left by the last resync is the error of the latency estimate
+                resyncing = false;
+                if( Math.abs( drift ) <= hardThreshold ) {
+                    seekLatency = Math.max( 0, seekLatency - ( ( drift / masterRate ) / 2 ) );
+                }
+            }
+
+            if( Math.abs( drift ) > hardThreshold ) {
+                // The master keeps playing while the member seeks
+                player.seek( reference + ( seekLatency * masterRate ), false );
+                if( stats.getRate() != masterRate ) {
+                    player.setPlaybackRate( masterRate );
+                }
+                stats.resynced();
+                stats.setRate( masterRate );
+                resyncing = true;
+                return;
+            }
+
+            double rate = masterRate;
+            if( Math.abs( drift ) > tolerance ) {
+                double nudge = Math.max( -maxNudge, Math.min( maxNudge, drift / correctionWindow ) );
+                rate = Math.round( masterRate * ( 1 - nudge ) * 100 ) / 100.0; // Avoid rate changes too small to matter
+            }
+
+            if( rate != stats.getRate() ) {
+                player.setPlaybackRate( rate );
+                if( rate == masterRate ) {
+                    stats.setRate( rate );
+                } else {
+                    stats.nudged( rate );
+                }
+            }
+        }
+
+        void resetRate() {
+            resyncing = false;
+            double rate = getMasterRate();
+            if( stats.getRate() != rate ) {
+                player.setPlaybackRate( rate );
+                stats.setRate( rate );
+            }
+        }
+    }
+}
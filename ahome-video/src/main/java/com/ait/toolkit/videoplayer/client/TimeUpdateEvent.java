@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.google.gwt.event.shared.GwtEvent;
+
+/**
+ * Fired when the current playback position has changed. A player fires the same instance for every update, so handlers
+ * must not keep it.
+ */
+public class TimeUpdateEvent extends GwtEvent<TimeUpdateHandler> {
+
+    private static final Type<TimeUpdateHandler> TYPE = new Type<TimeUpdateHandler>();
+
+    public static Type<TimeUpdateHandler> getType() {
+        return TYPE;
+    }
+
+    private double currentTime;
+
+    TimeUpdateEvent() {
+    }
+
+    void setCurrentTime( double currentTime ) {
+        this.currentTime = currentTime;
+    }
+
+    /**
+     * Gets the playback position, in seconds, read once when the event was fired.
+     */
+    public double getCurrentTime() {
+        return currentTime;
+    }
+
+    public VideoPlayer getPlayer() {
+        return (VideoPlayer)getSource();
+    }
+
+    @Override
+    public Type<TimeUpdateHandler> getAssociatedType() {
+        return TYPE;
+    }
+
+    @Override
+    protected void dispatch( TimeUpdateHandler handler ) {
+        handler.onTimeUpdate( this );
+    }
+}
@@ -15,25 +15,35 @@
  */
 package com.ait.toolkit.videoplayer.client;
 
-import static com.google.gwt.core.client.GWT.getModuleBaseURL;
-
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.ait.toolkit.core.client.JsoHelper;
-import com.ait.toolkit.videoplayer.client.resources.VideoPlayerResources;
+import com.ait.toolkit.videoplayer.client.stream.MseEngine;
+import com.google.gwt.core.client.Callback;
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.MediaElement;
 import com.google.gwt.dom.client.SourceElement;
+import com.google.gwt.dom.client.Style.Unit;
 import com.google.gwt.dom.client.VideoElement;
+import com.google.gwt.event.shared.EventHandler;
+import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.event.shared.HandlerManager;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Command;
+import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.Widget;
 
 public class VideoPlayer extends Widget {
     public static final String VERSION = "v4126"; // 4.12.6
 
-    private static final String FALLBACK_SWF = getModuleBaseURL() + "/videojs/" + VERSION + "/video-js.swf";
     private static final String DEFAULT_PRELOAD = MediaElement.PRELOAD_NONE;
+    private static final int POSTER_MARGIN = 200;
 
     private final int width;
     private final int height;
@@ -42,66 +52,325 @@ public class VideoPlayer extends Widget {
     private boolean controls = true;
     private String preload = DEFAULT_PRELOAD;
     private String poster = null;
+    private PosterSet posterSet;
     private boolean loop = false;
     private boolean autoPlay = false;
-    private int startPosition = 0;
+    private VideoPlayerConfig config;
+    private boolean customized = false;
+    private double startPosition = 0;
+    private boolean mediaFragments = true;
 
     private List<String> sources = new ArrayList<String>();
     private List<String> sourceType = new ArrayList<String>();
 
     private String playerId;
     private JavaScriptObject playerObject;
+    private boolean ready = false;
+    private HandlerRegistration startPositionRegistration;
+    private VideoPlayerPool pool;
+    private PreloadScheduler preloadScheduler;
+    private PlaybackGovernor playbackGovernor;
+    private MseEngine mediaSourceEngine;
+    private double preloadHint = 0;
+    private double loadStart = 0;
+
+    private int lazyMargin = -1;
+    private int offscreenDisposeDelay = 0;
+    private double visibleRatio = 1;
+    private Element placeholder;
+    private ViewportObserver viewportObserver;
+    private boolean nearViewport = false;
+
+    private final ViewportObserver.Listener viewportListener = new ViewportObserver.Listener() {
+        @Override
+        public void onIntersectionChange( boolean intersecting, double ratio ) {
+            visibleRatio = ratio;
+
+            if( intersecting ) {
+                offscreenTimer.cancel();
+
+                if( !nearViewport ) {
+                    nearViewport = true;
+                    applyPoster();
+                }
 
-    public VideoPlayer( int width, int height ) {
-        if( VideoPlayerResources.INSTANCE.css().ensureInjected() ) {
-            setFlashFallback();
+                if( ( playerObject == null ) && ( lazyMargin >= 0 ) ) {
+                    loadPlayer();
+                }
+            } else if( ( playerObject != null ) && ( lazyMargin >= 0 ) && ( offscreenDisposeDelay > 0 ) ) {
+                // Only lazy players are rebuilt when they come back
+                offscreenTimer.schedule( offscreenDisposeDelay );
+            }
         }
+    };
+
+    private final Timer offscreenTimer = new Timer() {
+        @Override
+        public void run() {
+            destroyPlayer();
+            showPlaceholder();
+        }
+    };
 
+    private PlayerState state;
+    private Boolean flashFallback;
+
+    private final List<Command> pendingOperations = new ArrayList<Command>();
+    private final List<String> addedClasses = new ArrayList<String>();
+    private boolean rebuilt = false;
+    private boolean lastMuted = false;
+    private double lastVolume = 1;
+    private double resumePosition = 0;
+    private boolean textTracksAdded = false;
+    private final HandlerManager playerHandlers = new HandlerManager( this );
+    private final Map<String, Integer> handlerCounts = new HashMap<String, Integer>();
+    private final Map<String, JavaScriptObject> nativeListeners = new HashMap<String, JavaScriptObject>();
+    // Fired for every update, to spare an allocation per event
+    private final TimeUpdateEvent timeUpdateEvent = new TimeUpdateEvent();
+    private final ProgressEvent progressEvent = new ProgressEvent();
+
+    public VideoPlayer( int width, int height ) {
         this.width = width;
         this.height = height;
 
         setElement( Document.get().createDivElement() );
     }
 
+    /**
+     * Creates a player from a configuration, which may be shared with other players.
+     */
+    public VideoPlayer( VideoPlayerConfig config ) {
+        this( config.getWidth(), config.getHeight() );
+
+        this.config = config;
+        this.controls = config.isControls();
+        this.preload = config.getPreload();
+        this.loop = config.isLoop();
+        this.autoPlay = config.isAutoPlay();
+    }
+
+    /**
+     * Gets the configuration the videojs instance is created with: the one given to the constructor, updated with the
+     * values of the setters called since, if any.
+     */
+    public VideoPlayerConfig getConfig() {
+        if( ( config != null ) && !customized ) {
+            return config;
+        }
+
+        VideoPlayerConfig.Builder builder = config != null ? new VideoPlayerConfig.Builder( config )
+                        : new VideoPlayerConfig.Builder( width, height );
+        return builder.controls( controls ).preload( preload ).loop( loop ).autoPlay( autoPlay ).build();
+    }
+
     /* (non-Javadoc)
      * @see com.google.gwt.user.client.ui.Widget#onLoad()
      */
     @Override
     protected void onLoad() {
-        playerId = Document.get().createUniqueId();
+        if( ( ( sources.size() == 0 ) && ( mediaSourceEngine == null ) ) || ( sources.size() != sourceType.size() ) ) {
+            throw new IllegalArgumentException( "Wrong number of video sources" );
+        }
 
-        VideoElement videoElem = Document.get().createVideoElement();
+        if( ( lazyMargin >= 0 ) && ViewportObserver.isSupported() ) {
+            showPlaceholder();
+            viewportObserver = ViewportObserver.get( lazyMargin );
+            viewportObserver.observe( getElement(), viewportListener );
+        } else {
+            if( ( posterSet != null ) && ViewportObserver.isSupported() ) {
+                viewportObserver = ViewportObserver.get( POSTER_MARGIN );
+                viewportObserver.observe( getElement(), viewportListener );
+            } else {
+                nearViewport = true;
+            }
+            loadPlayer();
+        }
+    }
 
-        videoElem.setId( playerId );
-        videoElem.addClassName( "video-js" );
-        videoElem.setWidth( width );
+    /**
+     * Gets the poster to show now: nothing until the player is near the viewport, then the best fitting candidate of
+     * the poster set, if any, or the single poster.
+     */
+    private String currentPoster() {
+        if( ( viewportObserver != null ) && !nearViewport ) {
+            return null;
+        }
+        if( posterSet != null ) {
+            return posterSet.select( width, height, getDevicePixelRatio() );
+        }
+        return poster;
+    }
 
-        videoElem.setHeight( height );
+    private void applyPoster() {
+        String url = currentPoster();
 
-        if( skinName != null ) {
-            videoElem.addClassName( skinName );
+        if( placeholder != null ) {
+            if( url != null ) {
+                placeholder.getStyle().setBackgroundImage( "url(\"" + url + "\")" );
+            }
+        } else if( ready ) {
+            _setPoster( url );
+        }
+    }
+
+    private native void _setPoster( String url ) /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+
+		if (player && url) {
+			player.poster(url);
+		}
+    }-*/;
+
+    private static native double getDevicePixelRatio() /*-{
+		return $wnd.devicePixelRatio || 1;
+    }-*/;
+
+    private void loadPlayer() {
+        loadStart = VideoPlayerStats.now();
+
+        VideoPlayerLoader.load( new Callback<Void, Throwable>() {
+            @Override
+            public void onSuccess( Void result ) {
+                if( isAttached() && ( playerObject == null ) ) {
+                    createPlayer();
+                }
+            }
+
+            @Override
+            public void onFailure( Throwable reason ) {
+                GWT.log( "Unable to load video.js runtime", reason );
+            }
+        } );
+    }
+
+    /**
+     * Renders a lightweight poster in place of the player until it is created.
+     */
+    private void showPlaceholder() {
+        if( placeholder != null ) {
+            return;
+        }
+
+        placeholder = Document.get().createDivElement();
+        placeholder.addClassName( "vjs-lazy-placeholder" );
+        placeholder.getStyle().setWidth( width, Unit.PX );
+        placeholder.getStyle().setHeight( height, Unit.PX );
+
+        String url = currentPoster();
+        if( url != null ) {
+            placeholder.getStyle().setBackgroundImage( "url(\"" + url + "\")" );
+        }
+        placeholder.getStyle().setProperty( "backgroundSize", "cover" );
+
+        getElement().appendChild( placeholder );
+    }
+
+    private void hidePlaceholder() {
+        if( placeholder != null ) {
+            placeholder.removeFromParent();
+            placeholder = null;
+        }
+    }
+
+    /**
+     * Builds the video element and the videojs instance once the runtime is available.
+     */
+    private void createPlayer() {
+        double start = VideoPlayerStats.now();
+
+        hidePlaceholder();
+
+        if( getConfig().isControls() ) {
+            VideoPlayerSkin.ensureControls();
         }
 
-        videoElem.setControls( controls );
+        JavaScriptObject pooled = pool != null ? pool.rent() : null;
 
-        if( preload != null ) {
-            videoElem.setPreload( preload );
+        if( pooled != null ) {
+            adoptPlayer( pooled );
+            VideoPlayerStats.playerAdopted( VideoPlayerStats.now() - start );
         } else {
-            videoElem.setPreload( DEFAULT_PRELOAD );
+            buildPlayer();
+            VideoPlayerStats.playerCreated( VideoPlayerStats.now() - start );
+        }
+    }
+
+    /**
+     * Appends a media fragment to the url so the browser requests the bytes at the start position up front.
+     */
+    private String withStartFragment( String url ) {
+        double position = getStartAt();
+        if( !mediaFragments || ( position <= 0 ) || ( url.indexOf( '#' ) >= 0 ) ) {
+            return url;
         }
+        return url + "#t=" + position;
+    }
 
-        if( poster != null ) {
-            videoElem.setPoster( poster );
+    /**
+     * Seeks once to the start position, as soon as the metadata is known, unless the media fragment already did.
+     */
+    private void applyStartPosition() {
+        if( ( getStartAt() <= 0 ) || isFlashFallback() ) { // Because of lack in progressive download for flash
+            return;
         }
 
-        if( ( sources.size() == 0 ) || ( sources.size() != sourceType.size() ) ) {
-            throw new IllegalArgumentException( "Wrong number of video sources" );
+        if( hasMetadata() ) {
+            seekToStartPosition();
+        } else {
+            startPositionRegistration = addLoadedMetadataHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    startPositionRegistration.removeHandler();
+                    startPositionRegistration = null;
+                    seekToStartPosition();
+                }
+            } );
+        }
+    }
+
+    private void seekToStartPosition() {
+        double position = getStartAt();
+        if( Math.abs( getCurrentTime() - position ) > 0.5 ) {
+            seek( position, false );
         }
+    }
+
+    /**
+     * Gets the position to start at: the one reached before the instance was last torn down, if any, or the start
+     * position.
+     */
+    private double getStartAt() {
+        return resumePosition > 0 ? resumePosition : startPosition;
+    }
+
+    private native boolean hasMetadata() /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+		var media = player ? player.el().getElementsByTagName('video')[0] : null;
+
+		return !!media && media.readyState >= 1;
+    }-*/;
+
+    private void buildPlayer() {
+        playerId = Document.get().createUniqueId();
 
-        for( int i = 0; i < sources.size(); i++ ) {
+        VideoElement videoElem = Document.get().createVideoElement();
+
+        videoElem.setId( playerId );
+        videoElem.addClassName( "video-js" );
+
+        if( skinName != null ) {
+            videoElem.addClassName( skinName );
+        }
+
+        String posterUrl = currentPoster();
+        if( posterUrl != null ) {
+            videoElem.setPoster( posterUrl );
+        }
+
+        for( int i : SourceSelector.select( sourceType, getConfig().getTechOrder() ) ) {
             SourceElement srcElem = Document.get().createSourceElement();
 
-            srcElem.setSrc( sources.get( i ) );
+            srcElem.setSrc( withStartFragment( sources.get( i ) ) );
             srcElem.setType( sourceType.get( i ) );
 
             videoElem.appendChild( srcElem );
@@ -109,17 +378,24 @@ public class VideoPlayer extends Widget {
 
         getElement().appendChild( videoElem );
 
-        this.playerObject = initPlayer();
+        this.playerObject = initPlayer( getConfig().getOptions() );
+    }
 
-        if( ( startPosition != 0 ) && !isFlashFallback() ) { // Because of lack in progressive download for flash
-            addDurationChangeHandler( new VideoPlayerHandler() {
-                public void handle( VideoPlayer player ) {
-                    player.pause();
-                    player.setCurrentTime( startPosition );
-                    player.play();
-                }
-            } );
+    /**
+     * Reuses a warm instance from the pool: moves its element under this widget and loads this widget's sources.
+     */
+    private void adoptPlayer( JavaScriptObject player ) {
+        JavaScriptObject array = JsoHelper.createJavaScriptArray();
+        List<Integer> order = SourceSelector.select( sourceType, getConfig().getTechOrder() );
+        for( int i = 0; i < order.size(); i++ ) {
+            int index = order.get( i );
+            JsoHelper.setArrayValue( array, i, new VideoSource( sourceType.get( index ), withStartFragment( sources.get( index ) ) ).getJsObj() );
         }
+
+        this.playerObject = player;
+        this.playerId = resetPlayer( player, getElement(), currentPoster(), getConfig().getOptions(), array );
+
+        onPlayerReady();
     }
 
     /* (non-Javadoc)
@@ -129,7 +405,67 @@ public class VideoPlayer extends Widget {
     protected void onUnload() {
         super.onUnload();
 
+        if( viewportObserver != null ) {
+            viewportObserver.unobserve( getElement() );
+            viewportObserver = null;
+        }
+        nearViewport = false;
+        offscreenTimer.cancel();
+
+        destroyPlayer();
+        hidePlaceholder();
+    }
+
+    /**
+     * Tears down the videojs instance, handing it back to the pool if one is set.
+     */
+    private void destroyPlayer() {
+        if( ( preloadScheduler != null ) && ready ) {
+            preloadScheduler.unregister( this );
+        }
+
+        if( ( playbackGovernor != null ) && ready ) {
+            playbackGovernor.unregister( this );
+        }
+
+        if( ( mediaSourceEngine != null ) && ready ) {
+            mediaSourceEngine.detach();
+        }
+
+        if( startPositionRegistration != null ) {
+            startPositionRegistration.removeHandler();
+            startPositionRegistration = null;
+        }
+
+        for( Map.Entry<String, JavaScriptObject> entry : nativeListeners.entrySet() ) {
+            unbindEventListener( entry.getKey(), entry.getValue() );
+        }
+        nativeListeners.clear();
+
+        if( ready ) { // Restored when the instance is rebuilt, see onPlayerReady
+            rebuilt = true;
+            lastMuted = isMuted();
+            lastVolume = _getVolume();
+            if( hasMetadata() ) {
+                resumePosition = getCurrentTime();
+            }
+        }
+
+        if( ( pool != null ) && ready && !textTracksAdded ) { // Text tracks cannot be removed from an instance
+            for( String value : addedClasses ) {
+                _removeClass( value );
+            }
+            pool.release( playerObject );
+        } else {
+            disposePlayer( playerObject );
+        }
+        getElement().removeAllChildren();
+
         this.playerObject = null;
+        this.playerId = null;
+        this.flashFallback = null;
+        this.textTracksAdded = false;
+        this.ready = false;
     }
 
     /**
@@ -137,7 +473,22 @@ public class VideoPlayer extends Widget {
      * Use this method if you are sure the current playback technology (HTML5/Flash) can support the source you provide. 
      * Currently only MP4 files can be used in both HTML5 and Flash.
      */
-    public native void setSource( String value ) /*-{
+    public void setSource( final String value ) {
+        flashFallback = null; // The tech may change with the source
+        resumePosition = 0;
+        if( ready ) {
+            _setSource( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setSource( value );
+                }
+            } );
+        }
+    }
+
+    private native void _setSource( String value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -149,11 +500,23 @@ public class VideoPlayer extends Widget {
      * Updates the video source
      */
     public void setSource( VideoSource... sources ) {
-        JavaScriptObject array = JsoHelper.createJavaScriptArray();
+        flashFallback = null; // The tech may change with the source
+        resumePosition = 0;
+        final JavaScriptObject array = JsoHelper.createJavaScriptArray();
         for( int i = 0; i < sources.length; i++ ) {
             JsoHelper.setArrayValue( array, i, sources[i].getJsObj() );
         }
-        _setSource( array );
+
+        if( ready ) {
+            _setSource( array );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setSource( array );
+                }
+            } );
+        }
     }
 
     private native void _setSource( JavaScriptObject values ) /*-{
@@ -168,7 +531,22 @@ public class VideoPlayer extends Widget {
      * Add a CSS class name to the component's element
      * @param value, the new CSS class
      */
-    public native void addClass( String value ) /*-{
+    public void addClass( final String value ) {
+        addedClasses.add( value );
+
+        if( ready ) {
+            _addClass( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _addClass( value );
+                }
+            } );
+        }
+    }
+
+    private native void _addClass( String value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -180,7 +558,22 @@ public class VideoPlayer extends Widget {
      * Add a text track In addition to the W3C settings we allow adding additional info through options.
      * @param kind, Captions, subtitles, chapters, descriptions, or metadata
      */
-    public native void addTextTrack( String kind ) /*-{
+    public void addTextTrack( final String kind ) {
+        textTracksAdded = true;
+
+        if( ready ) {
+            _addTextTrack( kind );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _addTextTrack( kind );
+                }
+            } );
+        }
+    }
+
+    private native void _addTextTrack( String kind ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -193,7 +586,22 @@ public class VideoPlayer extends Widget {
      * @param kind, Captions, subtitles, chapters, descriptions, or metadata
      * @param label, Optional label
      */
-    public native void addTextTrack( String kind, String label ) /*-{
+    public void addTextTrack( final String kind, final String label ) {
+        textTracksAdded = true;
+
+        if( ready ) {
+            _addTextTrack( kind, label );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _addTextTrack( kind, label );
+                }
+            } );
+        }
+    }
+
+    private native void _addTextTrack( String kind, String label ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -207,7 +615,22 @@ public class VideoPlayer extends Widget {
      * @param label, Optional label,
      * @param language, Optional language,
      */
-    public native void addTextTrack( String kind, String label, String language ) /*-{
+    public void addTextTrack( final String kind, final String label, final String language ) {
+        textTracksAdded = true;
+
+        if( ready ) {
+            _addTextTrack( kind, label, language );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _addTextTrack( kind, label, language );
+                }
+            } );
+        }
+    }
+
+    private native void _addTextTrack( String kind, String label, String language ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -215,7 +638,20 @@ public class VideoPlayer extends Widget {
 		}
     }-*/;
 
-    public native void setAutoPlay( boolean value ) /*-{
+    public void setAutoPlay( final boolean value ) {
+        if( ready ) {
+            _setAutoPlay( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setAutoPlay( value );
+                }
+            } );
+        }
+    }
+
+    private native void _setAutoPlay( boolean value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -224,16 +660,78 @@ public class VideoPlayer extends Widget {
     }-*/;
 
     /**
-     * Get a TimeRange object with the times of the video that have been downloaded
+     * Get the time ranges of the video that have been downloaded
      */
-    public native double getBuffered() /*-{
+    public BufferedRanges getBuffered() {
+        return getBuffered( new BufferedRanges() );
+    }
+
+    /**
+     * Fill the given object with the time ranges of the video that have been downloaded
+     * @param ranges the object to refill
+     * @return the given object
+     */
+    public BufferedRanges getBuffered( BufferedRanges ranges ) {
+        readRanges( "buffered", ranges );
+        return ranges;
+    }
+
+    /**
+     * Get the time ranges of the video the user is able to seek to
+     */
+    public BufferedRanges getSeekable() {
+        return getSeekable( new BufferedRanges() );
+    }
+
+    /**
+     * Fill the given object with the time ranges of the video the user is able to seek to
+     * @param ranges the object to refill
+     * @return the given object
+     */
+    public BufferedRanges getSeekable( BufferedRanges ranges ) {
+        readRanges( "seekable", ranges );
+        return ranges;
+    }
+
+    /**
+     * Get the time ranges of the video that have been played
+     */
+    public BufferedRanges getPlayed() {
+        return getPlayed( new BufferedRanges() );
+    }
+
+    /**
+     * Fill the given object with the time ranges of the video that have been played
+     * @param ranges the object to refill
+     * @return the given object
+     */
+    public BufferedRanges getPlayed( BufferedRanges ranges ) {
+        readRanges( "played", ranges );
+        return ranges;
+    }
+
+    private native void readRanges( String kind, BufferedRanges ranges ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+		var timeRanges = null;
+
+		ranges.@com.ait.toolkit.videoplayer.client.BufferedRanges::clear()();
 
 		if (player) {
-			return player.buffered();
+			if (kind == 'buffered') {
+				timeRanges = player.buffered();
+			} else {
+				// Not exposed by the videojs player, read them from the html5 element when there is one
+				var media = player.el().getElementsByTagName('video')[0];
+				timeRanges = media ? media[kind] : null;
+			}
 		}
-    }-*/;
 
+		if (timeRanges) {
+			for (var i = 0; i < timeRanges.length; i++) {
+				ranges.@com.ait.toolkit.videoplayer.client.BufferedRanges::add(DD)(timeRanges.start(i), timeRanges.end(i));
+			}
+		}
+    }-*/;
     /**
      * Get the percent (as a decimal) of the video that's been downloaded.
      * 0 means none, 1 means all. (This method isn't in the HTML5 spec, but it's very convenient)
@@ -284,7 +782,24 @@ public class VideoPlayer extends Widget {
     /**
      * Set whether or not the controls are showing.
      */
-    public native void controls( boolean value ) /*-{
+    public void controls( final boolean value ) {
+        if( value ) {
+            VideoPlayerSkin.ensureControls();
+        }
+
+        if( ready ) {
+            _controls( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _controls( value );
+                }
+            } );
+        }
+    }
+
+    private native void _controls( boolean value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -295,7 +810,20 @@ public class VideoPlayer extends Widget {
     /**
      * Set whether or not the controls are showing.
      */
-    public native void setHeight( String value ) /*-{
+    public void setHeight( final String value ) {
+        if( ready ) {
+            _setHeight( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setHeight( value );
+                }
+            } );
+        }
+    }
+
+    private native void _setHeight( String value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -341,7 +869,20 @@ public class VideoPlayer extends Widget {
     /**
      * Set whether or not the controls are showing.
      */
-    public native void setHeight( String value, boolean skipListeners ) /*-{
+    public void setHeight( final String value, final boolean skipListeners ) {
+        if( ready ) {
+            _setHeight( value, skipListeners );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setHeight( value, skipListeners );
+                }
+            } );
+        }
+    }
+
+    private native void _setHeight( String value, boolean skipListeners ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -349,7 +890,20 @@ public class VideoPlayer extends Widget {
 		}
     }-*/;
 
-    public native void setWidth( String value, boolean skipListeners ) /*-{
+    public void setWidth( final String value, final boolean skipListeners ) {
+        if( ready ) {
+            _setWidth( value, skipListeners );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setWidth( value, skipListeners );
+                }
+            } );
+        }
+    }
+
+    private native void _setWidth( String value, boolean skipListeners ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -360,7 +914,20 @@ public class VideoPlayer extends Widget {
     /**
      * The player's language code
      */
-    public native void setLanguage( String value ) /*-{
+    public void setLanguage( final String value ) {
+        if( ready ) {
+            _setLanguage( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setLanguage( value );
+                }
+            } );
+        }
+    }
+
+    private native void _setLanguage( String value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -371,7 +938,20 @@ public class VideoPlayer extends Widget {
     /**
      * Get the current muted state, or turn mute on or off
      */
-    public native void setMuted( boolean value ) /*-{
+    public void setMuted( final boolean value ) {
+        if( ready ) {
+            _setMuted( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setMuted( value );
+                }
+            } );
+        }
+    }
+
+    private native void _setMuted( boolean value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -423,6 +1003,24 @@ public class VideoPlayer extends Widget {
 		return "";
     }-*/;
 
+    /**
+     * Returns the readiness of the media element, from HAVE_NOTHING (0) to HAVE_ENOUGH_DATA (4). 0 while the player is
+     * not created or does not use the HTML5 tech.
+     */
+    public native int getReadyState() /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+		var media = player ? player.el().getElementsByTagName('video')[0] : null;
+
+		return media ? media.readyState : 0;
+    }-*/;
+
+    /**
+     * Check if the videojs instance is created and ready: calls are applied right away instead of being queued.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
     public native boolean isPaused() /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
@@ -437,7 +1035,7 @@ public class VideoPlayer extends Widget {
      * Gets the current playback rate.
      * @return
      */
-    public native double getPlackbackRate() /*-{
+    public native double getPlaybackRate() /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -447,11 +1045,40 @@ public class VideoPlayer extends Widget {
 		return -10000;
     }-*/;
 
+    /**
+     * @deprecated use {@link #getPlaybackRate()}
+     */
+    @Deprecated
+    public double getPlackbackRate() {
+        return getPlaybackRate();
+    }
+
     /**
      * Sets the current playback rate.
      * @param value
      */
-    public native void setPlackbackRate( double value ) /*-{
+    public void setPlaybackRate( final double value ) {
+        if( ready ) {
+            _setPlaybackRate( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setPlaybackRate( value );
+                }
+            } );
+        }
+    }
+
+    /**
+     * @deprecated use {@link #setPlaybackRate(double)}
+     */
+    @Deprecated
+    public void setPlackbackRate( double value ) {
+        setPlaybackRate( value );
+    }
+
+    private native void _setPlaybackRate( double value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -519,7 +1146,20 @@ public class VideoPlayer extends Widget {
     /**
      * Set both width and height at the same time
      */
-    public native void setDimensions( int width, int height ) /*-{
+    public void setDimensions( final int width, final int height ) {
+        if( ready ) {
+            _setDimensions( width, height );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setDimensions( width, height );
+                }
+            } );
+        }
+    }
+
+    private native void _setDimensions( int width, int height ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -528,9 +1168,22 @@ public class VideoPlayer extends Widget {
     }-*/;
 
     /**
-     * Start the video playback.
+     * Start the video playback, as soon as the player is ready if it is not yet.
      */
-    public native void play() /*-{
+    public void play() {
+        if( ready ) {
+            _play();
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _play();
+                }
+            } );
+        }
+    }
+
+    private native void _play() /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -625,6 +1278,8 @@ public class VideoPlayer extends Widget {
 		if (player) {
 			return player.currentTime();
 		}
+
+		return 0;
     }-*/;
 
     /**
@@ -637,13 +1292,30 @@ public class VideoPlayer extends Widget {
 		if (player) {
 			return player.remainingTime();
 		}
+
+		return 0;
     }-*/;
 
     /**
      * Returns the current time of the video in seconds.
      * @return
      */
-    public native float removeClass( String value ) /*-{
+    public void removeClass( final String value ) {
+        addedClasses.remove( value );
+
+        if( ready ) {
+            _removeClass( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _removeClass( value );
+                }
+            } );
+        }
+    }
+
+    private native void _removeClass( String value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -657,9 +1329,34 @@ public class VideoPlayer extends Widget {
 		if (player) {
 			return player.seeking();
 		}
+
+		return false;
     }-*/;
 
-    public native void setVolume( double value ) /*-{
+    public void setVolume( final double value ) {
+        if( ready ) {
+            _setVolume( value );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setVolume( value );
+                }
+            } );
+        }
+    }
+
+    private native double _getVolume() /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+
+		if (player) {
+			return player.volume();
+		}
+
+		return 1;
+    }-*/;
+
+    private native void _setVolume( double value ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -690,12 +1387,61 @@ public class VideoPlayer extends Widget {
 		}
     }-*/;
 
+    /**
+     * Reads the current time, duration, remaining time, buffered percent, paused, muted and seeking state in a single
+     * native call. The returned object is reused by every call on this player.
+     */
+    public PlayerState snapshot() {
+        if( state == null ) {
+            state = PlayerState.create();
+        }
+        fillState( state );
+        return state;
+    }
+
+    private native void fillState( PlayerState state ) /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+
+		if (player) {
+			state.available = true;
+			state.currentTime = player.currentTime() || 0;
+			state.duration = player.duration() || 0;
+			state.remainingTime = player.remainingTime() || 0;
+			state.bufferedPercent = player.bufferedPercent() || 0;
+			state.paused = !!player.paused();
+			state.muted = !!player.muted();
+			state.seeking = !!player.seeking();
+		} else {
+			state.available = false;
+			state.currentTime = 0;
+			state.duration = 0;
+			state.remainingTime = 0;
+			state.bufferedPercent = 0;
+			state.paused = false;
+			state.muted = false;
+			state.seeking = false;
+		}
+    }-*/;
+
     /**
      * Seek to the supplied time (seconds).
      *
      * @param position
      */
-    public native void setCurrentTime( float position ) /*-{
+    public void setCurrentTime( final float position ) {
+        if( ready ) {
+            _setCurrentTime( position );
+        } else {
+            pendingOperations.add( new Command() {
+                @Override
+                public void execute() {
+                    _setCurrentTime( position );
+                }
+            } );
+        }
+    }
+
+    private native void _setCurrentTime( float position ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
@@ -703,15 +1449,48 @@ public class VideoPlayer extends Widget {
 		}
     }-*/;
 
+    /**
+     * Seeks to the given time, with the approximate but cheaper fastSeek of the media element when asked and available.
+     */
+    native void seek( double time, boolean fast ) /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+
+		if (player) {
+			var media = fast ? player.el().getElementsByTagName('video')[0] : null;
+
+			if (media && media.fastSeek) {
+				media.fastSeek(time);
+			} else {
+				player.currentTime(time);
+			}
+		}
+    }-*/;
+
     /**
      * Check are we using flash fallback for current video.
      * @return
      */
-    public native boolean isFlashFallback() /*-{
-		var objects = $wnd.document.getElementById(
-				this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerId)
-				.getElementsByTagName('object');
+    public boolean isFlashFallback() {
+        if( flashFallback == null ) {
+            if( playerObject == null ) {
+                return false;
+            }
+            flashFallback = isFlashTech();
+        }
+        return flashFallback;
+    }
+
+    /**
+     * Reads the tech videojs actually loaded, which depends on its tech order as well as on the sources.
+     */
+    private native boolean isFlashTech() /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+
+		if (player.techName) {
+			return player.techName == 'Flash';
+		}
 
+		var objects = player.el().getElementsByTagName('object');
 		return ((objects != null) && (objects.length != 0));
     }-*/;
 
@@ -722,40 +1501,78 @@ public class VideoPlayer extends Widget {
         this.startPosition = startPosition;
     }
 
+    /**
+     * Sets the position, in seconds, playback starts from. The player seeks there once, before playback, as soon as
+     * the metadata is known; it only applies to players created after the call.
+     *
+     * @param startPosition the startPosition to set
+     */
+    public void setStartPosition( double startPosition ) {
+        this.startPosition = startPosition;
+    }
+
+    public double getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * Whether the start position is also passed as a <code>#t=</code> media fragment on the source urls, letting the
+     * browser fetch the right byte range from the first request. True by default.
+     */
+    public void setMediaFragments( boolean mediaFragments ) {
+        this.mediaFragments = mediaFragments;
+    }
+
+    /**
+     * Fired whenever the media begins or resumes playback.
+     * @param handler
+     */
+    public HandlerRegistration addPlayHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "play", handler );
+    }
+
     /**
      * Fired whenever the media begins or resumes playback.
      * @param handler
      */
-    public void addPlayHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "play", handler );
+    public HandlerRegistration addPlayEventHandler( PlayHandler handler ) {
+        return addPlayerHandler( "play", PlayEvent.getType(), handler );
     }
 
-    public void addErrorHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "error", handler );
+    public HandlerRegistration addErrorHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "error", handler );
     }
 
-    public void addFirstPlayHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "firstplay", handler );
+    public HandlerRegistration addFirstPlayHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "firstplay", handler );
     }
 
-    public void addFullscreenChangeHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "fullscreenchange", handler );
+    public HandlerRegistration addFullscreenChangeHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "fullscreenchange", handler );
+    }
+
+    /**
+     * Fired when playback actually starts or resumes after having been stopped for lack of data.
+     * @param handler
+     */
+    public HandlerRegistration addPlayingHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "playing", handler );
     }
 
     /**
      * Fired whenever the media has been paused.
      * @param handler
      */
-    public void addPauseHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "pause", handler );
+    public HandlerRegistration addPauseHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "pause", handler );
     }
 
     /**
      * Fired when the end of the media resource is reached. currentTime == duration
      * @param handler
      */
-    public void addEndedHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "ended", handler );
+    public HandlerRegistration addEndedHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "ended", handler );
     }
 
     /**
@@ -764,68 +1581,93 @@ public class VideoPlayer extends Widget {
      *
      * @param handler
      */
-    public void addTimeUpdateHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "timeupdate", handler );
+    public HandlerRegistration addTimeUpdateHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "timeupdate", handler );
+    }
+
+    /**
+     * Fired when the current playback position has changed. The event carries the current time.
+     *
+     * @param handler
+     */
+    public HandlerRegistration addTimeUpdateEventHandler( TimeUpdateHandler handler ) {
+        return addPlayerHandler( "timeupdate", TimeUpdateEvent.getType(), handler );
     }
 
     /**
      * Fired when the user agent begins looking for media data.
      * @param handler
      */
-    public void addLoadStartHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "loadstart", handler );
+    public HandlerRegistration addLoadStartHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "loadstart", handler );
     }
 
-    public void addProgressHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "progress", handler );
+    /**
+     * Fired when the media is unloaded, e.g. when the source changes.
+     * @param handler
+     */
+    public HandlerRegistration addEmptiedHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "emptied", handler );
+    }
+
+    public HandlerRegistration addProgressHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "progress", handler );
+    }
+
+    /**
+     * Fired while the media is downloading. The event carries the end of the buffered range.
+     * @param handler
+     */
+    public HandlerRegistration addProgressEventHandler( ProgressHandler handler ) {
+        return addPlayerHandler( "progress", ProgressEvent.getType(), handler );
     }
 
-    public void addResizeHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "resize", handler );
+    public HandlerRegistration addResizeHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "resize", handler );
     }
 
-    public void addSeekedHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "seeked", handler );
+    public HandlerRegistration addSeekedHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "seeked", handler );
     }
 
-    public void addSeekingHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "seeking", handler );
+    public HandlerRegistration addSeekingHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "seeking", handler );
     }
 
-    public void addWaitingHaldner( VideoPlayerHandler handler ) {
-        addEventHandler( "waiting", handler );
+    public HandlerRegistration addWaitingHaldner( VideoPlayerHandler handler ) {
+        return addEventHandler( "waiting", handler );
     }
 
     /**
      * Fired when the player has initial duration and dimension information.
      * @param handler
      */
-    public void addLoadedMetadataHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "loadedmetadata", handler );
+    public HandlerRegistration addLoadedMetadataHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "loadedmetadata", handler );
     };
 
     /**
      * Fired when the player has downloaded data at the current playback position.
      * @param handler
      */
-    public void addLoadedDataHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "loadeddata", handler );
+    public HandlerRegistration addLoadedDataHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "loadeddata", handler );
     }
 
     /**
      * Fired when the player has finished downloading the source data.
      * @param handler
      */
-    public void addLoadedAllDataHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "loadedalldata", handler );
+    public HandlerRegistration addLoadedAllDataHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "loadedalldata", handler );
     }
 
     /**
      * Fired when the duration of the media resource is changed, or known for the first time.
      * @param handler
      */
-    public void addDurationChangeHandler( VideoPlayerHandler handler ) {
-        addEventHandler( "durationchange", handler );
+    public HandlerRegistration addDurationChangeHandler( VideoPlayerHandler handler ) {
+        return addEventHandler( "durationchange", handler );
     }
 
     /**
@@ -844,6 +1686,7 @@ public class VideoPlayer extends Widget {
      */
     public void setControls( boolean controls ) {
         this.controls = controls;
+        this.customized = true;
     }
 
     /**
@@ -851,11 +1694,81 @@ public class VideoPlayer extends Widget {
      * @param preload the preload to set
      */
     public void setPreload( String preload ) {
-        this.preload = preload;
+        this.preload = preload == null ? DEFAULT_PRELOAD : preload;
+        this.customized = true;
+    }
+
+    /**
+     * Let the given scheduler decide the preload level of the player once it is created, instead of the fixed
+     * {@link #setPreload(String)} value.
+     * @param preloadScheduler the scheduler, usually {@link PreloadScheduler#get()}
+     */
+    public void setPreloadScheduler( PreloadScheduler preloadScheduler ) {
+        this.preloadScheduler = preloadScheduler;
+    }
+
+    /**
+     * Stream the media through the given Media Source Extensions engine instead of the sources added with
+     * {@link #addSource(String, String)}, which then become optional. Requires the HTML5 tech.
+     * @param mediaSourceEngine the engine, or null to play the sources
+     */
+    public void setMediaSourceEngine( MseEngine mediaSourceEngine ) {
+        this.mediaSourceEngine = mediaSourceEngine;
+    }
+
+    /**
+     * Let the given governor limit how many players play at the same time.
+     * @param playbackGovernor the governor, usually {@link PlaybackGovernor#get()}
+     */
+    public void setPlaybackGovernor( PlaybackGovernor playbackGovernor ) {
+        this.playbackGovernor = playbackGovernor;
+    }
+
+    /**
+     * Application hint added to the preload ranking of the player, e.g. 1 for the clip most likely to be played next.
+     * 0 by default.
+     * @param preloadHint the hint
+     */
+    public void setPreloadHint( double preloadHint ) {
+        this.preloadHint = preloadHint;
+
+        if( ( preloadScheduler != null ) && ready ) {
+            preloadScheduler.schedule();
+        }
+    }
+
+    public double getPreloadHint() {
+        return preloadHint;
+    }
+
+    /**
+     * Changes the preload level of the created player. Resource selection is restarted when leaving
+     * {@link MediaElement#PRELOAD_NONE}, as nothing has been fetched yet.
+     */
+    void applyPreload( String value ) {
+        if( ready ) {
+            _applyPreload( value );
+        }
     }
 
+    private native void _applyPreload( String value ) /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
+
+		if (player) {
+			var previous = player.preload();
+
+			player.preload(value);
+
+			if (previous == 'none' && value != 'none' && player.paused()
+					&& player.currentTime() == 0) {
+				player.load();
+			}
+		}
+    }-*/;
+
     public void setLoop( boolean loop ) {
         this.loop = loop;
+        this.customized = true;
     }
 
     /**
@@ -875,28 +1788,276 @@ public class VideoPlayer extends Widget {
         this.poster = poster;
     }
 
-    private native void setFlashFallback() /*-{
-		$wnd.videojs.options.flash.swf = @com.ait.toolkit.videoplayer.client.VideoPlayer::FALLBACK_SWF;
+    /**
+     * Picks the poster among candidates of different widths: the smallest one covering the player on the device
+     * screen. The poster is only loaded once the player comes near the viewport. Takes precedence over
+     * {@link #setPoster(String)}.
+     * @param posterSet the candidates, or null to use the single poster
+     */
+    public void setPosterSet( PosterSet posterSet ) {
+        this.posterSet = posterSet;
+    }
+
+    /**
+     * Rent the videojs instance from the given pool when attached and hand it back when detached.
+     * @param pool the pool to use, or null to always build a new instance
+     */
+    public void setPool( VideoPlayerPool pool ) {
+        this.pool = pool;
+    }
+
+    /**
+     * Defer the creation of the videojs instance until the player comes within the given margin of the viewport.
+     * A poster placeholder is rendered meanwhile. Negative by default (the player is created as soon as attached).
+     * @param margin distance from the viewport, in pixels
+     */
+    public void setLazyMargin( int margin ) {
+        this.lazyMargin = margin;
+    }
+
+    /**
+     * Tear the videojs instance of a lazy player down again once it has stayed out of the viewport margin for the
+     * given delay. 0 by default (never). Ignored unless the player is lazy, see {@link #setLazyMargin(int)}.
+     * @param delayMillis the delay in milliseconds
+     */
+    public void setOffscreenDisposeDelay( int delayMillis ) {
+        this.offscreenDisposeDelay = delayMillis;
+    }
+
+    /**
+     * Gets the last known fraction of the player within the viewport margin. Only tracked for lazy players.
+     */
+    public double getVisibleRatio() {
+        return visibleRatio;
+    }
+
+    /**
+     * Applies, in registration order, every operation recorded before the player was ready. When the instance is
+     * rebuilt, the state the previous one had when torn down is restored first.
+     */
+    private void onPlayerReady() {
+        for( String event : handlerCounts.keySet() ) {
+            bindEventListener( event );
+        }
+
+        if( rebuilt ) {
+            for( String value : addedClasses ) {
+                _addClass( value );
+            }
+            _setMuted( lastMuted );
+            _setVolume( lastVolume );
+        }
+
+        for( int i = 0; i < pendingOperations.size(); i++ ) {
+            pendingOperations.get( i ).execute();
+        }
+        pendingOperations.clear();
+
+        ready = true;
+
+        if( loadStart > 0 ) {
+            VideoPlayerStats.playerAttached( VideoPlayerStats.now() - loadStart );
+            loadStart = 0;
+        }
+
+        applyStartPosition();
+
+        if( preloadScheduler != null ) {
+            preloadScheduler.register( this );
+        }
+
+        if( playbackGovernor != null ) {
+            playbackGovernor.register( this );
+        }
+
+        if( mediaSourceEngine != null ) {
+            mediaSourceEngine.attach( this );
+        }
+    }
+
+    private native JavaScriptObject initPlayer( JavaScriptObject options ) /*-{
+		var javaPlayer = this;
+		var id = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerId;
+
+		return $wnd.videojs(id, options, function() {
+			// Ignore players torn down before they became ready
+			if (javaPlayer.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerId === id) {
+				javaPlayer.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject = this;
+				javaPlayer.@com.ait.toolkit.videoplayer.client.VideoPlayer::onPlayerReady()();
+			}
+		});
     }-*/;
 
-    private native JavaScriptObject initPlayer() /*-{
-		return $wnd.videojs(
-				this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerId,
-				{}, function() {
-				});
+    /**
+     * Releases the media buffers and the decoder of the underlying element, then disposes the videojs instance.
+     */
+    static void disposePlayer( JavaScriptObject player ) {
+        if( player != null ) {
+            VideoPlayerStats.playerDisposed();
+            _disposePlayer( player );
+        }
+    }
+
+    private static native void _disposePlayer( JavaScriptObject player ) /*-{
+		if (player) {
+			var media = player.el().getElementsByTagName('video')[0];
+
+			if (media) {
+				media.pause();
+				while (media.firstChild) {
+					media.removeChild(media.firstChild);
+				}
+				media.removeAttribute('src');
+				media.load();
+			}
+
+			player.dispose();
+		}
     }-*/;
 
-    private native void addEventHandler( String event, VideoPlayerHandler handler ) /*-{
+    private static native String resetPlayer( JavaScriptObject player, Element parent, String poster,
+                    JavaScriptObject options, JavaScriptObject sources ) /*-{
+		parent.appendChild(player.el());
+
+		player.dimensions(options.width, options.height);
+		player.controls(options.controls);
+		player.preload(options.preload);
+		player.loop(options.loop);
+		player.autoplay(options.autoplay);
+		player.muted(options.muted);
+		player.poster(poster || '');
+
+		// Undo what the previous renter may have changed, before loading the new sources so that a start position
+		// given as a media fragment is not overridden
+		player.volume(1);
+		player.playbackRate(1);
+		player.currentTime(0);
+
+		// Players fed by a media source engine have no sources, the engine attaches once the player is ready
+		if (sources.length > 0) {
+			player.src(sources);
+		}
+
+		return player.id();
+    }-*/;
+
+    private HandlerRegistration addEventHandler( String event, VideoPlayerHandler handler ) {
+        return addPlayerHandler( event, VideoPlayerEvent.getType( event ), handler );
+    }
+
+    /**
+     * Registers the handler with the player's handler manager. A single native listener is bound per videojs event,
+     * no matter how many handlers are registered for it, and released together with the last of them.
+     */
+    private <H extends EventHandler> HandlerRegistration addPlayerHandler( final String event, GwtEvent.Type<H> type, H handler ) {
+        final HandlerRegistration registration = playerHandlers.addHandler( type, handler );
+
+        Integer count = handlerCounts.get( event );
+        handlerCounts.put( event, count == null ? 1 : count + 1 );
+
+        if( ready ) {
+            bindEventListener( event );
+        }
+
+        return new HandlerRegistration() {
+            private boolean removed = false;
+
+            @Override
+            public void removeHandler() {
+                if( removed ) {
+                    return;
+                }
+                removed = true;
+                registration.removeHandler();
+
+                int count = handlerCounts.get( event ) - 1;
+
+                if( count == 0 ) {
+                    handlerCounts.remove( event );
+
+                    JavaScriptObject listener = nativeListeners.remove( event );
+                    if( listener != null ) {
+                        unbindEventListener( event, listener );
+                    }
+                } else {
+                    handlerCounts.put( event, count );
+                }
+            }
+        };
+    }
+
+    private void bindEventListener( String event ) {
+        if( !nativeListeners.containsKey( event ) ) {
+            nativeListeners.put( event, _bindEventListener( event ) );
+            VideoPlayerStats.listenerBound();
+        }
+    }
+
+    private void unbindEventListener( String event, JavaScriptObject listener ) {
+        _unbindEventListener( event, listener );
+        VideoPlayerStats.listenerUnbound();
+    }
+
+    /**
+     * Fans a native event out to the handlers registered for it. The payload has already been read by the native
+     * listener, once per event.
+     */
+    private void onPlayerEvent( String event, double value ) {
+        double start = VideoPlayerStats.isEnabled() ? VideoPlayerStats.now() : 0;
+
+        if( "play".equals( event ) ) {
+            if( playerHandlers.isEventHandled( PlayEvent.getType() ) ) {
+                playerHandlers.fireEvent( new PlayEvent() );
+            }
+        } else if( "timeupdate".equals( event ) ) {
+            if( playerHandlers.isEventHandled( TimeUpdateEvent.getType() ) ) {
+                timeUpdateEvent.setCurrentTime( value );
+                playerHandlers.fireEvent( timeUpdateEvent );
+            }
+        } else if( "progress".equals( event ) ) {
+            if( playerHandlers.isEventHandled( ProgressEvent.getType() ) ) {
+                progressEvent.setBufferedEnd( value );
+                playerHandlers.fireEvent( progressEvent );
+            }
+        }
+
+        if( playerHandlers.isEventHandled( VideoPlayerEvent.getType( event ) ) ) {
+            playerHandlers.fireEvent( new VideoPlayerEvent( event ) );
+        }
+
+        if( start > 0 ) {
+            VideoPlayerStats.eventDispatched( VideoPlayerStats.now() - start );
+        }
+    }
+
+    private native JavaScriptObject _bindEventListener( String event ) /*-{
 		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 		var javaPlayer = this;
+		var read = null;
+
+		if (event == 'timeupdate') {
+			read = function() {
+				return player.currentTime();
+			};
+		} else if (event == 'progress') {
+			read = function() {
+				return player.bufferedEnd();
+			};
+		}
+
+		var listener = function() {
+			javaPlayer.@com.ait.toolkit.videoplayer.client.VideoPlayer::onPlayerEvent(Ljava/lang/String;D)(event, read ? read() : 0);
+		};
+
+		player.on(event, listener);
+		return listener;
+    }-*/;
+
+    private native void _unbindEventListener( String event, JavaScriptObject listener ) /*-{
+		var player = this.@com.ait.toolkit.videoplayer.client.VideoPlayer::playerObject;
 
 		if (player) {
-			player
-					.addEvent(
-							event,
-							function() {
-								handler.@com.ait.toolkit.videoplayer.client.VideoPlayerHandler::handle(Lcom/ait/toolkit/videoplayer/client/VideoPlayer;)(javaPlayer);
-							});
+			player.off(event, listener);
 		}
     }-*/;
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.ait.toolkit.core.client.JsoHelper;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.MediaElement;
+
+/**
+ * Immutable configuration of a {@link VideoPlayer}, passed to videojs as its options object when the player is
+ * created, so the instance is set up in one pass instead of through attributes and setters afterwards.
+ * <p>
+ * The options object is built on first use and then shared, so one configuration can serve any number of players.
+ *
+ * <pre>
+ * VideoPlayerConfig config = new VideoPlayerConfig.Builder( 640, 360 ).preload( MediaElement.PRELOAD_METADATA )
+ *                 .muted( true ).playbackRates( 0.5, 1, 1.5, 2 ).build();
+ * </pre>
+ */
+public final class VideoPlayerConfig {
+
+    private final int width;
+    private final int height;
+    private final boolean controls;
+    private final String preload;
+    private final boolean loop;
+    private final boolean autoPlay;
+    private final boolean muted;
+    private final double[] playbackRates;
+    private final String[] techOrder;
+    private final Map<String, JavaScriptObject> plugins;
+
+    private JavaScriptObject options;
+
+    private VideoPlayerConfig( Builder builder ) {
+        this.width = builder.width;
+        this.height = builder.height;
+        this.controls = builder.controls;
+        this.preload = builder.preload;
+        this.loop = builder.loop;
+        this.autoPlay = builder.autoPlay;
+        this.muted = builder.muted;
+        this.playbackRates = builder.playbackRates;
+        this.techOrder = builder.techOrder;
+        this.plugins = new LinkedHashMap<String, JavaScriptObject>( builder.plugins );
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isControls() {
+        return controls;
+    }
+
+    public String getPreload() {
+        return preload;
+    }
+
+    public boolean isLoop() {
+        return loop;
+    }
+
+    public boolean isAutoPlay() {
+        return autoPlay;
+    }
+
+    public boolean isMuted() {
+        return muted;
+    }
+
+    public double[] getPlaybackRates() {
+        return playbackRates == null ? null : playbackRates.clone();
+    }
+
+    public String[] getTechOrder() {
+        return techOrder == null ? null : techOrder.clone();
+    }
+
+    /**
+     * Gets the videojs options object. Built once, then shared by every player using this configuration.
+     */
+    public JavaScriptObject getOptions() {
+        if( options == null ) {
+            options = toOptions();
+        }
+        return options;
+    }
+
+    private JavaScriptObject toOptions() {
+        JavaScriptObject result = JsoHelper.createObject();
+
+        JsoHelper.setAttribute( result, "width", width );
+        JsoHelper.setAttribute( result, "height", height );
+        JsoHelper.setAttribute( result, "controls", controls );
+        JsoHelper.setAttribute( result, "preload", preload );
+        JsoHelper.setAttribute( result, "loop", loop );
+        JsoHelper.setAttribute( result, "autoplay", autoPlay );
+        JsoHelper.setAttribute( result, "muted", muted );
+
+        if( playbackRates != null ) {
+            JavaScriptObject rates = JsoHelper.createJavaScriptArray();
+            for( int i = 0; i < playbackRates.length; i++ ) {
+                JsoHelper.setArrayValue( rates, i, playbackRates[i] );
+            }
+            JsoHelper.setAttribute( result, "playbackRates", rates );
+        }
+
+        if( techOrder != null ) {
+            JavaScriptObject techs = JsoHelper.createJavaScriptArray();
+            for( int i = 0; i < techOrder.length; i++ ) {
+                JsoHelper.setArrayValue( techs, i, techOrder[i] );
+            }
+            JsoHelper.setAttribute( result, "techOrder", techs );
+        }
+
+        if( !plugins.isEmpty() ) {
+            JavaScriptObject pluginOptions = JsoHelper.createObject();
+            for( Map.Entry<String, JavaScriptObject> plugin : plugins.entrySet() ) {
+                JsoHelper.setAttribute( pluginOptions, plugin.getKey(), plugin.getValue() );
+            }
+            JsoHelper.setAttribute( result, "plugins", pluginOptions );
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds {@link VideoPlayerConfig} instances. Defaults match a {@link VideoPlayer} created without one: controls
+     * shown, no preload, no loop, no autoplay, not muted.
+     */
+    public static class Builder {
+        private int width;
+        private int height;
+        private boolean controls = true;
+        private String preload = MediaElement.PRELOAD_NONE;
+        private boolean loop = false;
+        private boolean autoPlay = false;
+        private boolean muted = false;
+        private double[] playbackRates;
+        private String[] techOrder;
+        private final Map<String, JavaScriptObject> plugins = new LinkedHashMap<String, JavaScriptObject>();
+
+        public Builder( int width, int height ) {
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Starts from the values of an existing configuration.
+         */
+        public Builder( VideoPlayerConfig config ) {
+            this.width = config.width;
+            this.height = config.height;
+            this.controls = config.controls;
+            this.preload = config.preload;
+            this.loop = config.loop;
+            this.autoPlay = config.autoPlay;
+            this.muted = config.muted;
+            this.playbackRates = config.playbackRates;
+            this.techOrder = config.techOrder;
+            this.plugins.putAll( config.plugins );
+        }
+
+        public Builder dimensions( int width, int height ) {
+            this.width = width;
+            this.height = height;
+            return this;
+        }
+
+        public Builder controls( boolean controls ) {
+            this.controls = controls;
+            return this;
+        }
+
+        /**
+         * @param preload - one of the MediaElement.PRELOAD_* values.
+         */
+        public Builder preload( String preload ) {
+            this.preload = preload == null ? MediaElement.PRELOAD_NONE : preload;
+            return this;
+        }
+
+        public Builder loop( boolean loop ) {
+            this.loop = loop;
+            return this;
+        }
+
+        public Builder autoPlay( boolean autoPlay ) {
+            this.autoPlay = autoPlay;
+            return this;
+        }
+
+        public Builder muted( boolean muted ) {
+            this.muted = muted;
+            return this;
+        }
+
+        /**
+         * Playback rates offered by the control bar, e.g. 0.5, 1, 1.5, 2. None by default.
+         */
+        public Builder playbackRates( double... playbackRates ) {
+            this.playbackRates = playbackRates == null ? null : Arrays.copyOf( playbackRates, playbackRates.length );
+            return this;
+        }
+
+        /**
+         * Playback technologies to try, in order, e.g. "html5", "flash". The videojs default when not set.
+         */
+        public Builder techOrder( String... techOrder ) {
+            this.techOrder = techOrder == null ? null : Arrays.copyOf( techOrder, techOrder.length );
+            return this;
+        }
+
+        /**
+         * Initializes the given videojs plugin with the player.
+         *
+         * @param name - name the plugin is registered under.
+         * @param options - options passed to the plugin.
+         */
+        public Builder plugin( String name, JavaScriptObject options ) {
+            plugins.put( name, options == null ? JsoHelper.createObject() : options );
+            return this;
+        }
+
+        public VideoPlayerConfig build() {
+            return new VideoPlayerConfig( this );
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.event.shared.GwtEvent;
+
+/**
+ * Untyped player event, identified by its videojs event name.
+ */
+public class VideoPlayerEvent extends GwtEvent<VideoPlayerHandler> {
+
+    private static final Map<String, Type<VideoPlayerHandler>> TYPES = new HashMap<String, Type<VideoPlayerHandler>>();
+
+    /**
+     * Gets the event type associated with the given videojs event name.
+     *
+     * @param name - videojs event name, e.g. "play" or "timeupdate".
+     */
+    public static Type<VideoPlayerHandler> getType( String name ) {
+        Type<VideoPlayerHandler> type = TYPES.get( name );
+
+        if( type == null ) {
+            type = new Type<VideoPlayerHandler>();
+            TYPES.put( name, type );
+        }
+
+        return type;
+    }
+
+    private final String name;
+
+    VideoPlayerEvent( String name ) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the videojs event name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public VideoPlayer getPlayer() {
+        return (VideoPlayer)getSource();
+    }
+
+    @Override
+    public Type<VideoPlayerHandler> getAssociatedType() {
+        return getType( name );
+    }
+
+    @Override
+    protected void dispatch( VideoPlayerHandler handler ) {
+        handler.handle( getPlayer() );
+    }
+}
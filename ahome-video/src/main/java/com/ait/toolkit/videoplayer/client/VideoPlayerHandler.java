@@ -15,7 +15,9 @@
  */
 package com.ait.toolkit.videoplayer.client;
 
-public interface VideoPlayerHandler {
+import com.google.gwt.event.shared.EventHandler;
+
+public interface VideoPlayerHandler extends EventHandler {
     /**
      * Handle player event.
      *
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import static com.google.gwt.core.client.GWT.getModuleBaseURL;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ait.toolkit.videoplayer.client.resources.VideoPlayerResources;
+import com.google.gwt.core.client.Callback;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.RunAsyncCallback;
+import com.google.gwt.core.client.ScriptInjector;
+
+/**
+ * Loads the video.js runtime (script, critical skin styles and flash fallback) on demand.
+ * <p>
+ * The resources are only referenced from behind a split point, so pages that never attach a {@link VideoPlayer} do
+ * not download them as part of the initial fragment. Callers asking for the runtime while it is being loaded are
+ * queued and notified once it becomes available.
+ */
+public final class VideoPlayerLoader {
+
+    private static final String FALLBACK_SWF = getModuleBaseURL() + "/videojs/" + VideoPlayer.VERSION + "/video-js.swf";
+
+    private static final int IDLE = 0;
+    private static final int LOADING = 1;
+    private static final int LOADED = 2;
+
+    private static int state = IDLE;
+    private static List<Callback<Void, Throwable>> waiting = new ArrayList<Callback<Void, Throwable>>();
+
+    private VideoPlayerLoader() {
+    }
+
+    /**
+     * Check if the video.js runtime is ready to be used.
+     */
+    public static boolean isLoaded() {
+        return state == LOADED;
+    }
+
+    /**
+     * Ensure the video.js runtime is available and notify the callback once it is.
+     * The callback is invoked immediately if the runtime has already been loaded.
+     *
+     * @param callback - notified when the runtime is ready or could not be loaded.
+     */
+    public static void load( Callback<Void, Throwable> callback ) {
+        if( state == LOADED ) {
+            callback.onSuccess( null );
+            return;
+        }
+
+        waiting.add( callback );
+
+        if( state == IDLE ) {
+            state = LOADING;
+
+            GWT.runAsync( VideoPlayerLoader.class, new RunAsyncCallback() {
+                @Override
+                public void onSuccess() {
+                    inject();
+                    state = LOADED;
+                    flush( null );
+                }
+
+                @Override
+                public void onFailure( Throwable reason ) {
+                    state = IDLE;
+                    flush( reason );
+                }
+            } );
+        }
+    }
+
+    private static void inject() {
+        VideoPlayerSkin.injectCritical();
+
+        if( !isVideoJsPresent() ) {
+            ScriptInjector.fromString( VideoPlayerResources.INSTANCE.js().getText() ).setWindow( ScriptInjector.TOP_WINDOW )
+                            .setRemoveTag( false ).inject();
+        }
+
+        setFlashFallback();
+    }
+
+    private static void flush( Throwable reason ) {
+        List<Callback<Void, Throwable>> callbacks = waiting;
+        waiting = new ArrayList<Callback<Void, Throwable>>();
+
+        for( Callback<Void, Throwable> callback : callbacks ) {
+            if( reason == null ) {
+                callback.onSuccess( null );
+            } else {
+                callback.onFailure( reason );
+            }
+        }
+    }
+
+    private static native boolean isVideoJsPresent() /*-{
+		return !!$wnd.videojs;
+    }-*/;
+
+    private static native void setFlashFallback() /*-{
+		$wnd.videojs.options.flash.swf = @com.ait.toolkit.videoplayer.client.VideoPlayerLoader::FALLBACK_SWF;
+    }-*/;
+}
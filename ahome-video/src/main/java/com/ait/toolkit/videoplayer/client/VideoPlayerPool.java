@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.DivElement;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.Style.Display;
+import com.google.gwt.dom.client.VideoElement;
+
+/**
+ * Keeps a bounded number of warm videojs instances around so that players attached in quick succession (e.g. in a
+ * scrolling feed) can reuse them instead of building a new video element and videojs instance every time.
+ * <p>
+ * A player using the pool rents an instance when it is attached, loads its own sources into it, and hands it back
+ * when it is detached. Instances that do not fit in the pool are disposed. Players sharing a pool are expected to
+ * use the same skin.
+ * <p>
+ * Instances can also be built ahead of the first rental with {@link #prewarm(int, VideoPlayerConfig, String)}.
+ * <p>
+ * A rented instance gets back its default volume, playback rate and position, and loses the CSS classes its previous
+ * renter added. Instances that were given text tracks cannot be reset and are disposed instead of being returned.
+ */
+public class VideoPlayerPool {
+
+    private final int size;
+    private final List<JavaScriptObject> idle = new ArrayList<JavaScriptObject>();
+
+    private int warming = 0;
+    private int hits = 0;
+    private int misses = 0;
+
+    /**
+     * @param size - maximum number of idle instances kept warm.
+     */
+    public VideoPlayerPool( int size ) {
+        if( size < 0 ) {
+            throw new IllegalArgumentException( "Pool size must not be negative" );
+        }
+        this.size = size;
+    }
+
+    /**
+     * Builds new instances up front, so that the first players attached are served warm too. The instances are added to
+     * the pool once ready, as long as there is room for them. The videojs runtime must have been loaded, see
+     * {@link VideoPlayerLoader}.
+     *
+     * @param count - number of instances to build, bounded by the room left in the pool.
+     * @param config - configuration the instances are built with. Renting players apply their own dimensions, controls,
+     *            preload, loop, autoplay, muted and poster options.
+     * @param skinName - skin class of the players that will rent the instances, or null for none.
+     */
+    public void prewarm( int count, VideoPlayerConfig config, String skinName ) {
+        int room = size - idle.size() - warming;
+
+        if( ( room > 0 ) && config.isControls() ) {
+            VideoPlayerSkin.ensureControls();
+        }
+
+        for( int i = 0; i < Math.min( count, room ); i++ ) {
+            VideoElement videoElem = Document.get().createVideoElement();
+            videoElem.setId( Document.get().createUniqueId() );
+            videoElem.addClassName( "video-js" );
+
+            if( skinName != null ) {
+                videoElem.addClassName( skinName );
+            }
+
+            // videojs expects the element to be in the document, it is taken out again once ready
+            DivElement container = Document.get().createDivElement();
+            container.getStyle().setDisplay( Display.NONE );
+            container.appendChild( videoElem );
+            Document.get().getBody().appendChild( container );
+
+            warming++;
+            double start = VideoPlayerStats.now();
+            buildPlayer( videoElem.getId(), container, config.getOptions() );
+            VideoPlayerStats.playerCreated( VideoPlayerStats.now() - start );
+        }
+    }
+
+    /**
+     * Takes a warm instance out of the pool.
+     *
+     * @return the instance, or null if the pool is empty and a new one has to be built.
+     */
+    JavaScriptObject rent() {
+        if( idle.isEmpty() ) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        VideoPlayerStats.playerUnpooled();
+        return idle.remove( idle.size() - 1 );
+    }
+
+    /**
+     * Hands an instance back to the pool. The instance is paused and kept if there is room, disposed otherwise.
+     */
+    void release( JavaScriptObject player ) {
+        if( idle.size() < size ) {
+            pause( player );
+            idle.add( player );
+            VideoPlayerStats.playerPooled();
+        } else {
+            VideoPlayer.disposePlayer( player );
+        }
+    }
+
+    /**
+     * Disposes every idle instance.
+     */
+    public void clear() {
+        for( JavaScriptObject player : idle ) {
+            VideoPlayerStats.playerUnpooled();
+            VideoPlayer.disposePlayer( player );
+        }
+        idle.clear();
+    }
+
+    /**
+     * Gets the maximum number of idle instances kept warm.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of instances currently waiting in the pool.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the number of rentals served with a warm instance.
+     */
+    public int getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of rentals that had to build a new instance.
+     */
+    public int getMissCount() {
+        return misses;
+    }
+
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+    }
+
+    private void onWarm( JavaScriptObject player ) {
+        warming--;
+        release( player );
+    }
+
+    private native void buildPlayer( String id, Element container, JavaScriptObject options ) /*-{
+		var pool = this;
+
+		$wnd.videojs(id, options, function() {
+			var player = this;
+
+			container.parentNode.removeChild(container);
+			container.removeChild(player.el());
+			pool.@com.ait.toolkit.videoplayer.client.VideoPlayerPool::onWarm(Lcom/google/gwt/core/client/JavaScriptObject;)(player);
+		});
+    }-*/;
+
+    private static native void pause( JavaScriptObject player ) /*-{
+		player.pause();
+    }-*/;
+}
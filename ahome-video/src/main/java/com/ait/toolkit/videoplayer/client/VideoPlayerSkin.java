@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.ait.toolkit.videoplayer.client.resources.VideoPlayerResources;
+import com.ait.toolkit.videoplayer.client.resources.VideoPlayerSkinResources;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.RunAsyncCallback;
+import com.google.gwt.dom.client.Document;
+
+/**
+ * Injects the default skin in two parts.
+ * <p>
+ * The critical styles (layout, poster, text tracks) are injected with the runtime. The control bar styles and the
+ * icon font are loaded asynchronously, from their own split point, the first time a player shows its controls; until
+ * then the controls are kept hidden. Pages whose players never show controls never download them.
+ */
+public final class VideoPlayerSkin {
+
+    private static final String CONTROLS_PENDING = "vjs-controls-pending";
+
+    private static final int IDLE = 0;
+    private static final int LOADING = 1;
+    private static final int LOADED = 2;
+
+    private static int state = IDLE;
+    private static boolean controlsEnabled = true;
+
+    private VideoPlayerSkin() {
+    }
+
+    /**
+     * Whether the controls styles of the default skin may be loaded. Turn it off when every player uses
+     * <code>setControls(false)</code> or a custom skin, so the unused rules are never downloaded or parsed. True by
+     * default.
+     */
+    public static void setControlsEnabled( boolean enabled ) {
+        controlsEnabled = enabled;
+    }
+
+    /**
+     * Check if the controls styles have been injected.
+     */
+    public static boolean isControlsLoaded() {
+        return state == LOADED;
+    }
+
+    /**
+     * Injects the critical styles. Called with the runtime.
+     */
+    static void injectCritical() {
+        if( state != LOADED ) {
+            Document.get().getDocumentElement().addClassName( CONTROLS_PENDING );
+        }
+        VideoPlayerResources.INSTANCE.critical().ensureInjected();
+    }
+
+    /**
+     * Starts loading the controls styles, unless they are loaded, being loaded or disabled.
+     */
+    static void ensureControls() {
+        if( !controlsEnabled || ( state != IDLE ) ) {
+            return;
+        }
+
+        state = LOADING;
+
+        GWT.runAsync( VideoPlayerSkin.class, new RunAsyncCallback() {
+            @Override
+            public void onSuccess() {
+                VideoPlayerSkinResources.INSTANCE.controls().ensureInjected();
+                state = LOADED;
+                Document.get().getDocumentElement().removeClassName( CONTROLS_PENDING );
+            }
+
+            @Override
+            public void onFailure( Throwable reason ) {
+                state = IDLE;
+                GWT.log( "Unable to load the video player controls skin", reason );
+            }
+        } );
+    }
+}
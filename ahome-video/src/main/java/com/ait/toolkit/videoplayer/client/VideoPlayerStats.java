@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.ait.toolkit.videoplayer.client.qoe.Histogram;
+
+/**
+ * Page-wide cost counters of the player lifecycle, for benchmarks and regression gates.
+ * <p>
+ * Disabled by default, in which case the player only pays a flag check. Once enabled it records how long
+ * <code>createPlayer</code> takes, the time from <code>onLoad</code> to the ready callback, and the cost of fanning each
+ * native event out to its handlers, all in milliseconds from the high resolution clock of {@link #now()}. It also keeps
+ * the number of live videojs instances, of those idle in a {@link VideoPlayerPool}, and of native listeners: after a
+ * series of attach/detach cycles, all should be back to their starting values.
+ * {@link #toJson()} gives a machine-readable snapshot a harness can compare against thresholds.
+ */
+public final class VideoPlayerStats {
+
+    private static boolean enabled = false;
+
+    private static final Histogram create = new Histogram( 0.5, 1, 2, 5, 10, 20, 50, 100 );
+    private static final Histogram attach = new Histogram( 5, 10, 25, 50, 100, 250, 500, 1000 );
+    private static final Histogram dispatch = new Histogram( 0.01, 0.05, 0.1, 0.25, 0.5, 1, 2, 5 );
+
+    private static int livePlayers = 0;
+    private static int pooledPlayers = 0;
+    private static int liveListeners = 0;
+
+    private VideoPlayerStats() {
+    }
+
+    public static void setEnabled( boolean value ) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the durations of the synchronous player creation (element, sources and videojs instance), or of the reset
+     * of an instance rented from a pool.
+     */
+    public static Histogram getCreate() {
+        return create;
+    }
+
+    /**
+     * Gets the durations from attaching a player to its videojs instance being ready.
+     */
+    public static Histogram getAttach() {
+        return attach;
+    }
+
+    /**
+     * Gets the durations of dispatching one native event to all its handlers.
+     */
+    public static Histogram getDispatch() {
+        return dispatch;
+    }
+
+    /**
+     * Gets the number of videojs instances created by players and not disposed yet, including those idle in a pool.
+     */
+    public static int getLivePlayers() {
+        return livePlayers;
+    }
+
+    /**
+     * Gets the number of videojs instances idle in a pool.
+     */
+    public static int getPooledPlayers() {
+        return pooledPlayers;
+    }
+
+    /**
+     * Gets the number of native listeners bound by players and not unbound yet.
+     */
+    public static int getLiveListeners() {
+        return liveListeners;
+    }
+
+    /**
+     * Clears the histograms. The live counts are kept, they describe the current page.
+     */
+    public static void reset() {
+        create.reset();
+        attach.reset();
+        dispatch.reset();
+    }
+
+    public static String toJson() {
+        StringBuilder json = new StringBuilder( "{\"create\":" ).append( create.toJson() );
+        json.append( ",\"attach\":" ).append( attach.toJson() );
+        json.append( ",\"dispatch\":" ).append( dispatch.toJson() );
+        json.append( ",\"livePlayers\":" ).append( livePlayers );
+        json.append( ",\"pooledPlayers\":" ).append( pooledPlayers );
+        json.append( ",\"liveListeners\":" ).append( liveListeners );
+        return json.append( '}' ).toString();
+    }
+
+    /**
+     * Gets a timestamp, in milliseconds, with sub-millisecond resolution where the browser provides it.
+     */
+    public static native double now() /*-{
+		var performance = $wnd.performance;
+		return performance && performance.now ? performance.now() : new Date().getTime();
+    }-*/;
+
+    static void playerCreated( double millis ) {
+        livePlayers++;
+        if( enabled ) {
+            create.record( millis );
+        }
+    }
+
+    static void playerAdopted( double millis ) {
+        if( enabled ) {
+            create.record( millis );
+        }
+    }
+
+    static void playerPooled() {
+        pooledPlayers++;
+    }
+
+    static void playerUnpooled() {
+        pooledPlayers--;
+    }
+
+    static void playerDisposed() {
+        livePlayers--;
+    }
+
+    static void playerAttached( double millis ) {
+        if( enabled ) {
+            attach.record( millis );
+        }
+    }
+
+    static void listenerBound() {
+        liveListeners++;
+    }
+
+    static void listenerUnbound() {
+        liveListeners--;
+    }
+
+    static void eventDispatched( double millis ) {
+        if( enabled ) {
+            dispatch.record( millis );
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ait.toolkit.videoplayer.client.qoe.Histogram;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.dom.client.MediaElement;
+import com.google.gwt.dom.client.Style.Position;
+import com.google.gwt.dom.client.Style.Unit;
+import com.google.gwt.dom.client.Style.Visibility;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.user.client.ui.Composite;
+import com.google.gwt.user.client.ui.FlowPanel;
+
+/**
+ * Plays a list of clips one after the other without a visible gap between them.
+ * <p>
+ * Once the current clip gets within the warm point of its end, the next clip is prepared. By default it is created in
+ * a hidden standby player that preloads it, and the standby player is revealed and started on <code>ended</code>, so
+ * no load cycle happens at the transition. Alternatively only the first bytes of the next clip are prefetched into the
+ * HTTP cache and the current player switches source at the transition, which costs less memory but leaves a short
+ * gap. The time from <code>ended</code> to the next clip playing is recorded for each transition, whichever the mode.
+ */
+public class VideoPlaylist extends Composite {
+
+    /**
+     * How the next clip is prepared.
+     */
+    public enum WarmMode {
+        /**
+         * Prepares the next clip in a hidden standby player.
+         */
+        STANDBY,
+
+        /**
+         * Prefetches the first bytes of the next clip and switches the source of the current player.
+         */
+        PREFETCH
+    }
+
+    private final FlowPanel panel = new FlowPanel();
+    private final VideoPlayerConfig config;
+    private final VideoPlayerConfig standbyConfig;
+    private final List<PlaylistItem> items = new ArrayList<PlaylistItem>();
+    private final List<HandlerRegistration> registrations = new ArrayList<HandlerRegistration>();
+
+    private WarmMode warmMode = WarmMode.STANDBY;
+    private double warmPoint = 10;
+    private int prefetchBytes = 512 * 1024;
+
+    private VideoPlayer active;
+    private VideoPlayer standby;
+    private int currentIndex = -1;
+    private boolean warmed = false;
+
+    private double transitionStart = -1;
+    private double lastTransitionLatency = -1;
+    private final Histogram transitionLatency = new Histogram( 10, 25, 50, 100, 250, 500, 1000, 2000 );
+
+    public VideoPlaylist( int width, int height ) {
+        this( new VideoPlayerConfig.Builder( width, height ).build() );
+    }
+
+    /**
+     * @param config - configuration of the players, shared by all clips.
+     */
+    public VideoPlaylist( VideoPlayerConfig config ) {
+        this.config = config;
+        this.standbyConfig = new VideoPlayerConfig.Builder( config ).preload( MediaElement.PRELOAD_AUTO )
+                        .autoPlay( false ).build();
+
+        panel.getElement().getStyle().setPosition( Position.RELATIVE );
+        panel.getElement().getStyle().setWidth( config.getWidth(), Unit.PX );
+        panel.getElement().getStyle().setHeight( config.getHeight(), Unit.PX );
+        initWidget( panel );
+    }
+
+    public void add( PlaylistItem item ) {
+        items.add( item );
+    }
+
+    /**
+     * Shows the first clip when attached, unless one was selected already.
+     */
+    @Override
+    protected void onLoad() {
+        super.onLoad();
+
+        if( ( currentIndex < 0 ) && !items.isEmpty() ) {
+            select( 0 );
+        }
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    /**
+     * How the next clip is prepared. {@link WarmMode#STANDBY} by default.
+     */
+    public void setWarmMode( WarmMode warmMode ) {
+        this.warmMode = warmMode == null ? WarmMode.STANDBY : warmMode;
+    }
+
+    public WarmMode getWarmMode() {
+        return warmMode;
+    }
+
+    /**
+     * Remaining time of the current clip, in seconds, at which the next clip is prepared. 10 by default.
+     */
+    public void setWarmPoint( double warmPoint ) {
+        this.warmPoint = warmPoint;
+    }
+
+    /**
+     * Number of bytes fetched ahead in {@link WarmMode#PREFETCH} mode. 512KB by default.
+     */
+    public void setPrefetchBytes( int prefetchBytes ) {
+        this.prefetchBytes = prefetchBytes;
+    }
+
+    /**
+     * Gets the index of the clip being played, -1 before the playlist starts.
+     */
+    public int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    /**
+     * Gets the player of the current clip, or null before the playlist starts.
+     */
+    public VideoPlayer getPlayer() {
+        return active;
+    }
+
+    /**
+     * Gets the time from the end of a clip to the next one playing, in milliseconds, for the last transition, or -1.
+     */
+    public double getLastTransitionLatency() {
+        return lastTransitionLatency;
+    }
+
+    /**
+     * Gets the transition latencies, in milliseconds.
+     */
+    public Histogram getTransitionLatency() {
+        return transitionLatency;
+    }
+
+    /**
+     * Shows the given clip, dropping any prepared one.
+     */
+    public void select( int index ) {
+        if( standby != null ) {
+            panel.remove( standby );
+            standby = null;
+        }
+        if( active != null ) {
+            unbind();
+            panel.remove( active );
+        }
+
+        transitionStart = -1;
+        currentIndex = index;
+        active = createPlayer( items.get( index ), config );
+        panel.add( active );
+        bind();
+    }
+
+    private VideoPlayer createPlayer( PlaylistItem item, VideoPlayerConfig playerConfig ) {
+        VideoPlayer player = new VideoPlayer( playerConfig );
+        item.applyTo( player );
+
+        player.getElement().getStyle().setPosition( Position.ABSOLUTE );
+        player.getElement().getStyle().setLeft( 0, Unit.PX );
+        player.getElement().getStyle().setTop( 0, Unit.PX );
+        return player;
+    }
+
+    private void bind() {
+        warmed = false;
+
+        registrations.add( active.addPlayingHandler( new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                if( transitionStart >= 0 ) {
+                    lastTransitionLatency = Duration.currentTimeMillis() - transitionStart;
+                    transitionLatency.record( lastTransitionLatency );
+                    transitionStart = -1;
+                }
+            }
+        } ) );
+        registrations.add( active.addTimeUpdateEventHandler( new TimeUpdateHandler() {
+            @Override
+            public void onTimeUpdate( TimeUpdateEvent event ) {
+                if( !warmed ) {
+                    double duration = active.getDuration();
+                    if( ( duration > 0 ) && ( duration - event.getCurrentTime() <= warmPoint ) ) {
+                        warmed = true;
+                        warm();
+                    }
+                }
+            }
+        } ) );
+        registrations.add( active.addEndedHandler( new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                advance();
+            }
+        } ) );
+    }
+
+    private void unbind() {
+        for( HandlerRegistration registration : registrations ) {
+            registration.removeHandler();
+        }
+        registrations.clear();
+    }
+
+    private void warm() {
+        if( currentIndex + 1 >= items.size() ) {
+            return;
+        }
+
+        PlaylistItem next = items.get( currentIndex + 1 );
+
+        if( warmMode == WarmMode.STANDBY ) {
+            standby = createPlayer( next, standbyConfig );
+            standby.getElement().getStyle().setVisibility( Visibility.HIDDEN );
+            panel.add( standby );
+        } else {
+            prefetch( next.getPreferredSource() );
+        }
+    }
+
+    private void advance() {
+        if( currentIndex + 1 >= items.size() ) {
+            return;
+        }
+
+        transitionStart = Duration.currentTimeMillis();
+        currentIndex++;
+
+        if( standby != null ) {
+            VideoPlayer previous = active;
+            active = standby;
+            standby = null;
+
+            // Bound before starting, so the playing event of the standby player is not missed
+            unbind();
+            bind();
+            active.getElement().getStyle().clearVisibility();
+            active.play();
+            panel.remove( previous );
+        } else {
+            active.setSource( items.get( currentIndex ).toVideoSources( active.getConfig().getTechOrder() ) );
+            active.play();
+            warmed = false;
+        }
+    }
+
+    private void prefetch( final String url ) {
+        if( url == null ) {
+            return;
+        }
+
+        RequestBuilder builder = new RequestBuilder( RequestBuilder.GET, url );
+        builder.setHeader( "Range", "bytes=0-" + ( prefetchBytes - 1 ) );
+
+        try {
+            builder.sendRequest( null, new RequestCallback() {
+                @Override
+                public void onResponseReceived( Request request, Response response ) {
+                }
+
+                @Override
+                public void onError( Request request, Throwable exception ) {
+                    GWT.log( "Unable to prefetch " + url, exception );
+                }
+            } );
+        } catch( RequestException e ) {
+            GWT.log( "Unable to prefetch " + url, e );
+        }
+    }
+}
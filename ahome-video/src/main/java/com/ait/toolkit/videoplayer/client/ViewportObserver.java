@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * Shared IntersectionObserver notifying players when they come within a given margin of the viewport. One native
+ * observer is created per margin and shared by every element observed with it.
+ */
+final class ViewportObserver {
+
+    /**
+     * Notified when the intersection of an observed element with the (margin-extended) viewport changes.
+     */
+    interface Listener {
+        void onIntersectionChange( boolean intersecting, double ratio );
+    }
+
+    private static final Map<Integer, ViewportObserver> OBSERVERS = new HashMap<Integer, ViewportObserver>();
+
+    /**
+     * Gets the observer for the given margin, in pixels around the viewport.
+     */
+    static ViewportObserver get( int margin ) {
+        ViewportObserver observer = OBSERVERS.get( margin );
+
+        if( observer == null ) {
+            observer = new ViewportObserver( margin );
+            OBSERVERS.put( margin, observer );
+        }
+
+        return observer;
+    }
+
+    /**
+     * Computes the fraction of the widget currently inside the viewport, from its layout geometry.
+     */
+    static double getVisibleFraction( Widget widget ) {
+        int top = widget.getAbsoluteTop();
+        int height = Math.max( widget.getOffsetHeight(), 1 );
+        int viewportTop = Window.getScrollTop();
+        int viewportBottom = viewportTop + Window.getClientHeight();
+
+        double overlap = Math.min( top + height, viewportBottom ) - Math.max( top, viewportTop );
+
+        return Math.max( overlap, 0 ) / height;
+    }
+
+    static native boolean isSupported() /*-{
+		return !!$wnd.IntersectionObserver;
+    }-*/;
+
+    private final JavaScriptObject observer;
+
+    private ViewportObserver( int margin ) {
+        observer = createObserver( margin + "px" );
+    }
+
+    void observe( Element element, Listener listener ) {
+        observe( observer, element, listener );
+    }
+
+    void unobserve( Element element ) {
+        unobserve( observer, element );
+    }
+
+    private static native JavaScriptObject createObserver( String margin ) /*-{
+		return new $wnd.IntersectionObserver(function(entries) {
+			for (var i = 0; i < entries.length; i++) {
+				var entry = entries[i];
+				var listener = entry.target.__gwtViewportListener;
+
+				if (listener) {
+					listener.@com.ait.toolkit.videoplayer.client.ViewportObserver.Listener::onIntersectionChange(ZD)(entry.isIntersecting, entry.intersectionRatio);
+				}
+			}
+		}, {
+			rootMargin : margin,
+			threshold : [ 0, 0.25, 0.5, 0.75, 1 ]
+		});
+    }-*/;
+
+    private static native void observe( JavaScriptObject observer, Element element, Listener listener ) /*-{
+		element.__gwtViewportListener = listener;
+		observer.observe(element);
+    }-*/;
+
+    private static native void unobserve( JavaScriptObject observer, Element element ) /*-{
+		observer.unobserve(element);
+		delete element.__gwtViewportListener;
+    }-*/;
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+import java.util.List;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+
+/**
+ * Posts each batch as a JSON array to the given URL, with navigator.sendBeacon when available (so batches flushed
+ * while the page unloads are not lost) and an asynchronous POST otherwise.
+ */
+public class BeaconQoeSink implements QoeSink {
+
+    private final String url;
+
+    public BeaconQoeSink( String url ) {
+        this.url = url;
+    }
+
+    @Override
+    public void send( List<QoeReport> reports ) {
+        StringBuilder json = new StringBuilder( "[" );
+        for( int i = 0; i < reports.size(); i++ ) {
+            if( i > 0 ) {
+                json.append( ',' );
+            }
+            json.append( reports.get( i ).toJson() );
+        }
+        String data = json.append( ']' ).toString();
+
+        if( !sendBeacon( url, data ) ) {
+            post( data );
+        }
+    }
+
+    private void post( String data ) {
+        RequestBuilder builder = new RequestBuilder( RequestBuilder.POST, url );
+        builder.setHeader( "Content-Type", "application/json" );
+
+        try {
+            builder.sendRequest( data, new RequestCallback() {
+                @Override
+                public void onResponseReceived( Request request, Response response ) {
+                }
+
+                @Override
+                public void onError( Request request, Throwable exception ) {
+                    GWT.log( "Unable to send QoE reports", exception );
+                }
+            } );
+        } catch( RequestException e ) {
+            GWT.log( "Unable to send QoE reports", e );
+        }
+    }
+
+    private static native boolean sendBeacon( String url, String data ) /*-{
+		var navigator = $wnd.navigator;
+
+		if (navigator.sendBeacon) {
+			return navigator.sendBeacon(url, new $wnd.Blob([ data ], {
+				type : 'application/json'
+			}));
+		}
+		return false;
+    }-*/;
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+/**
+ * Histogram with fixed bucket bounds. Recording a value does not allocate.
+ */
+public class Histogram {
+
+    private final double[] bounds;
+    private final int[] counts;
+
+    private int totalCount = 0;
+    private double sum = 0;
+    private double max = 0;
+
+    /**
+     * @param bounds - upper bound of each bucket, in increasing order. Values above the last bound are counted in an
+     *            extra overflow bucket.
+     */
+    public Histogram( double... bounds ) {
+        for( int i = 1; i < bounds.length; i++ ) {
+            if( bounds[i] <= bounds[i - 1] ) {
+                throw new IllegalArgumentException( "Bucket bounds must be increasing" );
+            }
+        }
+        this.bounds = bounds.clone();
+        this.counts = new int[bounds.length + 1];
+    }
+
+    public void record( double value ) {
+        int low = 0;
+        int high = bounds.length;
+
+        while( low < high ) {
+            int mid = ( low + high ) >>> 1;
+
+            if( value <= bounds[mid] ) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        counts[low]++;
+        totalCount++;
+        sum += value;
+        max = totalCount == 1 ? value : Math.max( max, value );
+    }
+
+    /**
+     * Gets the number of buckets, including the overflow bucket.
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Gets the upper bound of the given bucket, infinite for the overflow bucket.
+     */
+    public double getUpperBound( int bucket ) {
+        return bucket < bounds.length ? bounds[bucket] : Double.POSITIVE_INFINITY;
+    }
+
+    public int getCount( int bucket ) {
+        return counts[bucket];
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * Gets the upper bound of the bucket holding the given quantile, e.g. 0.95.
+     */
+    public double getQuantile( double quantile ) {
+        int rank = (int)Math.ceil( quantile * totalCount );
+        int seen = 0;
+
+        for( int i = 0; i < counts.length; i++ ) {
+            seen += counts[i];
+            if( ( seen >= rank ) && ( seen > 0 ) ) {
+                return i < bounds.length ? bounds[i] : max;
+            }
+        }
+
+        return 0;
+    }
+
+    public void reset() {
+        for( int i = 0; i < counts.length; i++ ) {
+            counts[i] = 0;
+        }
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /**
+     * Serializes the histogram as a JSON object.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder( "{\"bounds\":[" );
+        for( int i = 0; i < bounds.length; i++ ) {
+            if( i > 0 ) {
+                json.append( ',' );
+            }
+            json.append( bounds[i] );
+        }
+        json.append( "],\"counts\":[" );
+        for( int i = 0; i < counts.length; i++ ) {
+            if( i > 0 ) {
+                json.append( ',' );
+            }
+            json.append( counts[i] );
+        }
+        return json.append( "],\"total\":" ).append( totalCount ).append( ",\"sum\":" ).append( sum ).append( '}' ).toString();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the reports in memory, e.g. for tests or an on-page diagnostics panel.
+ */
+public class MemoryQoeSink implements QoeSink {
+
+    private final List<QoeReport> reports = new ArrayList<QoeReport>();
+    private int batchCount = 0;
+
+    @Override
+    public void send( List<QoeReport> reports ) {
+        this.reports.addAll( reports );
+        batchCount++;
+    }
+
+    public List<QoeReport> getReports() {
+        return reports;
+    }
+
+    /**
+     * Gets the number of batches received.
+     */
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    public void clear() {
+        reports.clear();
+        batchCount = 0;
+    }
+}
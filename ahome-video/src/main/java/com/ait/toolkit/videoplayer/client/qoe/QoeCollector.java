@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ait.toolkit.videoplayer.client.TimeUpdateEvent;
+import com.ait.toolkit.videoplayer.client.TimeUpdateHandler;
+import com.ait.toolkit.videoplayer.client.VideoPlayer;
+import com.ait.toolkit.videoplayer.client.VideoPlayerHandler;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Timer;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.Window.ClosingEvent;
+import com.google.gwt.user.client.Window.ClosingHandler;
+
+/**
+ * Collects quality-of-experience metrics from the events of the attached players.
+ * <p>
+ * A session is opened per player and closed when the media ends, the source changes or the player is detached. Closed
+ * sessions are queued as {@link QoeReport}s and handed to the {@link QoeSink} in batches: when the batch is full,
+ * on a periodic flush and when the page is closed. Time to first frame, seek latency and rebuffering durations are
+ * also aggregated page-wide in fixed-bucket histograms.
+ */
+public class QoeCollector {
+
+    private final QoeSink sink;
+
+    private final Histogram timeToFirstFrameHistogram = new Histogram( 100, 250, 500, 1000, 2000, 4000, 8000 );
+    private final Histogram seekLatencyHistogram = new Histogram( 50, 100, 250, 500, 1000, 2000, 5000 );
+    private final Histogram rebufferHistogram = new Histogram( 250, 500, 1000, 2000, 5000, 10000, 30000 );
+
+    private final List<Tracker> trackers = new ArrayList<Tracker>();
+    private final List<QoeReport> batch = new ArrayList<QoeReport>();
+
+    private int batchSize = 10;
+    private int flushInterval = 30000;
+    private HandlerRegistration closingRegistration;
+
+    private final Timer flushTimer = new Timer() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    public QoeCollector( QoeSink sink ) {
+        this.sink = sink;
+    }
+
+    /**
+     * Number of reports sent together. 10 by default.
+     */
+    public void setBatchSize( int batchSize ) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Maximum delay, in milliseconds, before a queued report is sent. 30s by default.
+     */
+    public void setFlushInterval( int flushInterval ) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Histogram getTimeToFirstFrameHistogram() {
+        return timeToFirstFrameHistogram;
+    }
+
+    public Histogram getSeekLatencyHistogram() {
+        return seekLatencyHistogram;
+    }
+
+    public Histogram getRebufferHistogram() {
+        return rebufferHistogram;
+    }
+
+    /**
+     * Start collecting metrics for the given player.
+     */
+    public void attach( VideoPlayer player ) {
+        trackers.add( new Tracker( player ) );
+
+        if( closingRegistration == null ) {
+            closingRegistration = Window.addWindowClosingHandler( new ClosingHandler() {
+                @Override
+                public void onWindowClosing( ClosingEvent event ) {
+                    for( Tracker tracker : trackers ) {
+                        tracker.finish();
+                    }
+                    flush();
+                }
+            } );
+        }
+    }
+
+    /**
+     * Stop collecting metrics for the given player, closing its current session.
+     */
+    public void detach( VideoPlayer player ) {
+        for( int i = 0; i < trackers.size(); i++ ) {
+            Tracker tracker = trackers.get( i );
+
+            if( tracker.player == player ) {
+                tracker.finish();
+                tracker.removeHandlers();
+                trackers.remove( i );
+                break;
+            }
+        }
+    }
+
+    /**
+     * Send the queued reports now.
+     */
+    public void flush() {
+        flushTimer.cancel();
+
+        if( !batch.isEmpty() ) {
+            List<QoeReport> reports = new ArrayList<QoeReport>( batch );
+            batch.clear();
+            sink.send( reports );
+        }
+    }
+
+    private void queue( QoeReport report ) {
+        batch.add( report );
+
+        if( batch.size() >= batchSize ) {
+            flush();
+        } else if( batch.size() == 1 ) {
+            flushTimer.schedule( flushInterval );
+        }
+    }
+
+    private class Tracker {
+        private final VideoPlayer player;
+        private final List<HandlerRegistration> registrations = new ArrayList<HandlerRegistration>();
+
+        private QoeSession session;
+        private int droppedFramesBase;
+        private int totalFramesBase;
+
+        Tracker( VideoPlayer player ) {
+            this.player = player;
+            open();
+
+            registrations.add( player.addLoadStartHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    if( session.isStarted() ) {
+                        finish();
+                    }
+                    session.setSource( player.getCurrentSource() );
+                }
+            } ) );
+            registrations.add( player.addFirstPlayHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    session.onFirstPlay( Duration.currentTimeMillis() );
+                }
+            } ) );
+            registrations.add( player.addWaitingHaldner( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    session.onWaiting( Duration.currentTimeMillis() );
+                }
+            } ) );
+            registrations.add( player.addTimeUpdateEventHandler( new TimeUpdateHandler() {
+                @Override
+                public void onTimeUpdate( TimeUpdateEvent event ) {
+                    session.onTimeUpdate( Duration.currentTimeMillis(), event.getCurrentTime() );
+                }
+            } ) );
+            // The rendition only changes with the intrinsic size of the video, not on every time update
+            VideoPlayerHandler renditionHandler = new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    session.onRendition( getRendition( player.getEl() ) );
+                }
+            };
+            registrations.add( player.addLoadedMetadataHandler( renditionHandler ) );
+            registrations.add( player.addResizeHandler( renditionHandler ) );
+            registrations.add( player.addSeekingHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    session.onSeeking( Duration.currentTimeMillis() );
+                }
+            } ) );
+            registrations.add( player.addSeekedHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    session.onSeeked( Duration.currentTimeMillis() );
+                }
+            } ) );
+            registrations.add( player.addErrorHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    session.onError();
+                }
+            } ) );
+            registrations.add( player.addEndedHandler( new VideoPlayerHandler() {
+                @Override
+                public void handle( VideoPlayer player ) {
+                    finish();
+                }
+            } ) );
+        }
+
+        private void open() {
+            session = new QoeSession( timeToFirstFrameHistogram, seekLatencyHistogram, rebufferHistogram );
+            session.setSource( player.getCurrentSource() );
+
+            Element el = player.getEl();
+            droppedFramesBase = getDroppedFrames( el );
+            totalFramesBase = getTotalFrames( el );
+            session.onRendition( getRendition( el ) );
+        }
+
+        /**
+         * Queues the report of the current session, if playback was requested, and opens a new one.
+         */
+        void finish() {
+            if( session.isStarted() ) {
+                Element el = player.getEl();
+                int droppedFrames = Math.max( getDroppedFrames( el ) - droppedFramesBase, 0 );
+                int totalFrames = Math.max( getTotalFrames( el ) - totalFramesBase, 0 );
+
+                queue( session.finish( Duration.currentTimeMillis(), droppedFrames, totalFrames ) );
+                open();
+            }
+        }
+
+        void removeHandlers() {
+            for( HandlerRegistration registration : registrations ) {
+                registration.removeHandler();
+            }
+            registrations.clear();
+        }
+    }
+
+    private static native int getDroppedFrames( Element el ) /*-{
+		var media = el ? el.getElementsByTagName('video')[0] : null;
+
+		if (media && media.getVideoPlaybackQuality) {
+			return media.getVideoPlaybackQuality().droppedVideoFrames;
+		}
+		return 0;
+    }-*/;
+
+    private static native int getTotalFrames( Element el ) /*-{
+		var media = el ? el.getElementsByTagName('video')[0] : null;
+
+		if (media && media.getVideoPlaybackQuality) {
+			return media.getVideoPlaybackQuality().totalVideoFrames;
+		}
+		return 0;
+    }-*/;
+
+    /**
+     * Identifies the decoded rendition by its pixel count.
+     */
+    private static native int getRendition( Element el ) /*-{
+		var media = el ? el.getElementsByTagName('video')[0] : null;
+
+		return media ? media.videoWidth * media.videoHeight : 0;
+    }-*/;
+}
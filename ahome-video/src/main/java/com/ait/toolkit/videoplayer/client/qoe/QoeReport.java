@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+/**
+ * Quality-of-experience metrics of a single playback session.
+ */
+public class QoeReport {
+
+    private final String source;
+    private final double timeToFirstFrame;
+    private final double playTime;
+    private final int rebufferCount;
+    private final double rebufferTime;
+    private final int seekCount;
+    private final double seekTime;
+    private final int droppedFrames;
+    private final int totalFrames;
+    private final int bitrateSwitches;
+    private final int errorCount;
+
+    QoeReport( String source, double timeToFirstFrame, double playTime, int rebufferCount, double rebufferTime,
+                    int seekCount, double seekTime, int droppedFrames, int totalFrames, int bitrateSwitches,
+                    int errorCount ) {
+        this.source = source;
+        this.timeToFirstFrame = timeToFirstFrame;
+        this.playTime = playTime;
+        this.rebufferCount = rebufferCount;
+        this.rebufferTime = rebufferTime;
+        this.seekCount = seekCount;
+        this.seekTime = seekTime;
+        this.droppedFrames = droppedFrames;
+        this.totalFrames = totalFrames;
+        this.bitrateSwitches = bitrateSwitches;
+        this.errorCount = errorCount;
+    }
+
+    /**
+     * Gets the media source played during the session.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the milliseconds between the first play request and the first frame, or -1 if no frame was shown.
+     */
+    public double getTimeToFirstFrame() {
+        return timeToFirstFrame;
+    }
+
+    /**
+     * Gets the seconds of media played.
+     */
+    public double getPlayTime() {
+        return playTime;
+    }
+
+    public int getRebufferCount() {
+        return rebufferCount;
+    }
+
+    /**
+     * Gets the seconds spent rebuffering.
+     */
+    public double getRebufferTime() {
+        return rebufferTime;
+    }
+
+    /**
+     * Gets the fraction of the session spent rebuffering.
+     */
+    public double getRebufferRatio() {
+        double total = playTime + rebufferTime;
+        return total == 0 ? 0 : rebufferTime / total;
+    }
+
+    public int getSeekCount() {
+        return seekCount;
+    }
+
+    /**
+     * Gets the average milliseconds between a seek request and its completion.
+     */
+    public double getAverageSeekLatency() {
+        return seekCount == 0 ? 0 : seekTime / seekCount;
+    }
+
+    public int getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public int getTotalFrames() {
+        return totalFrames;
+    }
+
+    public int getBitrateSwitches() {
+        return bitrateSwitches;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Serializes the report as a JSON object.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder( "{\"source\":" );
+        appendString( json, source );
+        json.append( ",\"timeToFirstFrame\":" ).append( timeToFirstFrame );
+        json.append( ",\"playTime\":" ).append( playTime );
+        json.append( ",\"rebufferCount\":" ).append( rebufferCount );
+        json.append( ",\"rebufferTime\":" ).append( rebufferTime );
+        json.append( ",\"rebufferRatio\":" ).append( getRebufferRatio() );
+        json.append( ",\"seekCount\":" ).append( seekCount );
+        json.append( ",\"averageSeekLatency\":" ).append( getAverageSeekLatency() );
+        json.append( ",\"droppedFrames\":" ).append( droppedFrames );
+        json.append( ",\"totalFrames\":" ).append( totalFrames );
+        json.append( ",\"bitrateSwitches\":" ).append( bitrateSwitches );
+        json.append( ",\"errorCount\":" ).append( errorCount );
+        return json.append( '}' ).toString();
+    }
+
+    private static void appendString( StringBuilder json, String value ) {
+        if( value == null ) {
+            json.append( "null" );
+            return;
+        }
+
+        json.append( '"' );
+        for( int i = 0; i < value.length(); i++ ) {
+            char c = value.charAt( i );
+
+            if( ( c == '"' ) || ( c == '\\' ) ) {
+                json.append( '\\' ).append( c );
+            } else if( c < ' ' ) {
+                String hex = Integer.toHexString( c );
+                json.append( "\\u" );
+                for( int j = hex.length(); j < 4; j++ ) {
+                    json.append( '0' );
+                }
+                json.append( hex );
+            } else {
+                json.append( c );
+            }
+        }
+        json.append( '"' );
+    }
+}
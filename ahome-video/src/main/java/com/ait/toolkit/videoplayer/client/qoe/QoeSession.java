@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+/**
+ * Metrics accumulated for one playback session. The session is driven by player events, with the time (in
+ * milliseconds) passed in by the caller, so it holds no reference to the player.
+ */
+public class QoeSession {
+
+    /**
+     * Largest media time progress, in seconds, accounted between two time updates. Larger jumps are seeks.
+     */
+    private static final double MAX_PROGRESS = 1;
+
+    private final Histogram timeToFirstFrameHistogram;
+    private final Histogram seekLatencyHistogram;
+    private final Histogram rebufferHistogram;
+
+    private String source;
+
+    private double playRequestedAt = -1;
+    private double timeToFirstFrame = -1;
+    private double lastPosition = -1;
+    private double playTime = 0;
+
+    private boolean rebuffering = false;
+    private double rebufferStartedAt = 0;
+    private int rebufferCount = 0;
+    private double rebufferTime = 0;
+
+    private boolean seeking = false;
+    private double seekStartedAt = 0;
+    private int seekCount = 0;
+    private double seekTime = 0;
+
+    private int rendition = -1;
+    private int bitrateSwitches = 0;
+    private int errorCount = 0;
+
+    /**
+     * @param timeToFirstFrameHistogram - receives the time to first frame, in milliseconds.
+     * @param seekLatencyHistogram - receives each seek latency, in milliseconds.
+     * @param rebufferHistogram - receives each rebuffering duration, in milliseconds.
+     */
+    public QoeSession( Histogram timeToFirstFrameHistogram, Histogram seekLatencyHistogram, Histogram rebufferHistogram ) {
+        this.timeToFirstFrameHistogram = timeToFirstFrameHistogram;
+        this.seekLatencyHistogram = seekLatencyHistogram;
+        this.rebufferHistogram = rebufferHistogram;
+    }
+
+    public void setSource( String source ) {
+        this.source = source;
+    }
+
+    /**
+     * Check if playback was requested during this session.
+     */
+    public boolean isStarted() {
+        return playRequestedAt >= 0;
+    }
+
+    public void onFirstPlay( double now ) {
+        if( playRequestedAt < 0 ) {
+            playRequestedAt = now;
+        }
+    }
+
+    public void onWaiting( double now ) {
+        if( ( timeToFirstFrame >= 0 ) && !seeking && !rebuffering ) {
+            rebuffering = true;
+            rebufferStartedAt = now;
+            rebufferCount++;
+        }
+    }
+
+    public void onTimeUpdate( double now, double position ) {
+        if( ( timeToFirstFrame < 0 ) && ( playRequestedAt >= 0 ) && ( position > 0 ) ) {
+            timeToFirstFrame = now - playRequestedAt;
+            timeToFirstFrameHistogram.record( timeToFirstFrame );
+        }
+
+        if( ( lastPosition >= 0 ) && ( position > lastPosition ) ) {
+            double progress = position - lastPosition;
+
+            if( progress <= MAX_PROGRESS ) {
+                playTime += progress;
+            }
+
+            if( rebuffering ) {
+                endRebuffering( now );
+            }
+        }
+
+        lastPosition = position;
+    }
+
+    public void onSeeking( double now ) {
+        if( !seeking ) {
+            seeking = true;
+            seekStartedAt = now;
+        }
+
+        if( rebuffering ) {
+            endRebuffering( now );
+        }
+    }
+
+    public void onSeeked( double now ) {
+        if( seeking ) {
+            double latency = now - seekStartedAt;
+
+            seeking = false;
+            seekCount++;
+            seekTime += latency;
+            seekLatencyHistogram.record( latency );
+            lastPosition = -1;
+        }
+    }
+
+    /**
+     * Records the rendition currently decoded, identified e.g. by its pixel count. A change counts as a switch.
+     */
+    public void onRendition( int rendition ) {
+        if( rendition <= 0 ) {
+            return;
+        }
+
+        if( ( this.rendition > 0 ) && ( this.rendition != rendition ) ) {
+            bitrateSwitches++;
+        }
+        this.rendition = rendition;
+    }
+
+    public void onError() {
+        errorCount++;
+    }
+
+    /**
+     * Closes the session.
+     *
+     * @param now - current time, in milliseconds.
+     * @param droppedFrames - frames dropped by the decoder, or 0 if unknown.
+     * @param totalFrames - frames decoded, or 0 if unknown.
+     */
+    public QoeReport finish( double now, int droppedFrames, int totalFrames ) {
+        if( rebuffering ) {
+            endRebuffering( now );
+        }
+
+        return new QoeReport( source, timeToFirstFrame, playTime, rebufferCount, rebufferTime / 1000, seekCount, seekTime,
+                        droppedFrames, totalFrames, bitrateSwitches, errorCount );
+    }
+
+    private void endRebuffering( double now ) {
+        double duration = now - rebufferStartedAt;
+
+        rebuffering = false;
+        rebufferTime += duration;
+        rebufferHistogram.record( duration );
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+import java.util.List;
+
+/**
+ * Destination of the quality-of-experience reports, which the {@link QoeCollector} sends in batches.
+ */
+public interface QoeSink {
+    /**
+     * Send a batch of reports.
+     *
+     * @param reports - the reports, never empty.
+     */
+    void send( List<QoeReport> reports );
+}
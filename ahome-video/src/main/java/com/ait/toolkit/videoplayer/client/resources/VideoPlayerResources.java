@@ -26,8 +26,12 @@ public interface VideoPlayerResources extends ClientBundle {
 
     public static final VideoPlayerResources INSTANCE = create( VideoPlayerResources.class );
 
-    @Source( VERSION + "/video-js.css" )
-    CssResource css();
+    /**
+     * Layout and poster styles, injected with the runtime. The controls styles are in
+     * {@link VideoPlayerSkinResources}.
+     */
+    @Source( VERSION + "/video-js-critical.css" )
+    CssResource critical();
 
     @Source( VERSION + "/video.js" )
     TextResource js();
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.resources;
+
+import static com.ait.toolkit.videoplayer.client.VideoPlayer.VERSION;
+import static com.google.gwt.core.client.GWT.create;
+
+import com.google.gwt.resources.client.ClientBundle;
+import com.google.gwt.resources.client.CssResource;
+
+/**
+ * Control bar styles and icon font of the default skin. Only referenced from behind the split point of
+ * {@link com.ait.toolkit.videoplayer.client.VideoPlayerSkin}, so they are downloaded when controls are first shown.
+ */
+public interface VideoPlayerSkinResources extends ClientBundle {
+
+    public static final VideoPlayerSkinResources INSTANCE = create( VideoPlayerSkinResources.class );
+
+    @Source( VERSION + "/video-js-controls.css" )
+    CssResource controls();
+
+}
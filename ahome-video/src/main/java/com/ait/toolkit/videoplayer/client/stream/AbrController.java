@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Chooses the rendition of the next segment from the estimated throughput and the buffer level.
+ * <p>
+ * The highest rendition whose bitrate fits in a safety fraction of the throughput is the candidate. Below the low
+ * buffer mark the player drops straight to the candidate; between the marks it holds the current rendition, or steps
+ * down one rung when the rendition no longer fits; above the high mark it holds or climbs, one rung at a time and not
+ * more often than the minimum switch interval. When the buffer runs nearly dry the lowest rendition is used.
+ */
+public class AbrController {
+
+    private final List<Rendition> renditions;
+    private final ThroughputEstimator estimator;
+
+    private double safetyFactor = 0.8;
+    private double panicBuffer = 2;
+    private double lowBuffer = 8;
+    private double highBuffer = 20;
+    private double minSwitchInterval = 10000;
+
+    private int current;
+    private double lastSwitchAt = Double.NEGATIVE_INFINITY;
+    private int switchCount = 0;
+
+    /**
+     * @param renditions - the ladder, in any order.
+     */
+    public AbrController( List<Rendition> renditions ) {
+        this( renditions, new ThroughputEstimator() );
+    }
+
+    public AbrController( List<Rendition> renditions, ThroughputEstimator estimator ) {
+        if( renditions.isEmpty() ) {
+            throw new IllegalArgumentException( "At least one rendition is required" );
+        }
+
+        this.renditions = new ArrayList<Rendition>( renditions );
+        Collections.sort( this.renditions, new Comparator<Rendition>() {
+            @Override
+            public int compare( Rendition o1, Rendition o2 ) {
+                return Double.compare( o1.getBitrate(), o2.getBitrate() );
+            }
+        } );
+        this.estimator = estimator;
+        this.current = 0;
+    }
+
+    /**
+     * Fraction of the estimated throughput a rendition may use. 0.8 by default.
+     */
+    public void setSafetyFactor( double safetyFactor ) {
+        this.safetyFactor = safetyFactor;
+    }
+
+    /**
+     * Buffer levels, in seconds: the lowest rendition is used below the panic level, only down-switches are allowed
+     * below the low level and up-switches are allowed above the high one. 2, 8 and 20 by default.
+     */
+    public void setBufferLevels( double panicBuffer, double lowBuffer, double highBuffer ) {
+        if( ( panicBuffer > lowBuffer ) || ( lowBuffer > highBuffer ) ) {
+            throw new IllegalArgumentException( "Buffer levels must be increasing" );
+        }
+        this.panicBuffer = panicBuffer;
+        this.lowBuffer = lowBuffer;
+        this.highBuffer = highBuffer;
+    }
+
+    /**
+     * Minimum delay, in milliseconds, between a switch and the next up-switch. 10s by default.
+     */
+    public void setMinSwitchInterval( double minSwitchInterval ) {
+        this.minSwitchInterval = minSwitchInterval;
+    }
+
+    /**
+     * Sets the rendition used until the first decision, e.g. the one closest to the player size.
+     */
+    public void setInitialRendition( int index ) {
+        this.current = index;
+    }
+
+    /**
+     * Gets the renditions, lowest bitrate first.
+     */
+    public List<Rendition> getRenditions() {
+        return Collections.unmodifiableList( renditions );
+    }
+
+    public Rendition getRendition( int index ) {
+        return renditions.get( index );
+    }
+
+    public int getCurrentIndex() {
+        return current;
+    }
+
+    public int getSwitchCount() {
+        return switchCount;
+    }
+
+    public ThroughputEstimator getEstimator() {
+        return estimator;
+    }
+
+    /**
+     * Records a completed segment download.
+     *
+     * @param bytes - bytes downloaded.
+     * @param millis - download duration, in milliseconds.
+     */
+    public void onDownload( double bytes, double millis ) {
+        estimator.addSample( bytes, millis );
+    }
+
+    /**
+     * Chooses the rendition of the next segment.
+     *
+     * @param bufferLevel - seconds buffered ahead of the playhead.
+     * @param now - current time, in milliseconds.
+     * @return the index of the rendition, lowest bitrate first.
+     */
+    public int select( double bufferLevel, double now ) {
+        double throughput = estimator.getEstimate();
+
+        if( throughput <= 0 ) {
+            return current;
+        }
+
+        int candidate = 0;
+        for( int i = renditions.size() - 1; i > 0; i-- ) {
+            if( renditions.get( i ).getBitrate() <= ( throughput * safetyFactor ) ) {
+                candidate = i;
+                break;
+            }
+        }
+
+        int target;
+        if( bufferLevel < panicBuffer ) {
+            target = 0;
+        } else if( bufferLevel < highBuffer ) {
+            // Hold, or step down when the current rendition no longer fits (at once when the buffer is low)
+            target = Math.min( candidate, current );
+            if( ( bufferLevel >= lowBuffer ) && ( target < current ) ) {
+                target = current - 1;
+            }
+        } else if( ( candidate > current ) && ( ( now - lastSwitchAt ) >= minSwitchInterval ) ) {
+            target = current + 1;
+        } else {
+            // A full buffer absorbs a temporary throughput drop
+            target = current;
+        }
+
+        if( target != current ) {
+            current = target;
+            lastSwitchAt = now;
+            switchCount++;
+        }
+
+        return current;
+    }
+}
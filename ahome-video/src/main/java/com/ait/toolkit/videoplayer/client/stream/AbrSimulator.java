@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+/**
+ * Replays a recorded bandwidth trace against an {@link AbrController} to measure, offline, the rebuffering and the
+ * average bitrate a ladder and a set of parameters would give.
+ * <p>
+ * The video is modelled as a sequence of equal-length segments fetched one after the other, with no fetch while the
+ * buffer-ahead window is full. Playback starts once the first segment is buffered.
+ */
+public class AbrSimulator {
+
+    private final double[] traceDurations;
+    private final double[] traceBandwidths;
+
+    private double segmentDuration = 4;
+    private double bufferAhead = 30;
+    private double requestLatency = 0;
+
+    /**
+     * @param traceDurations - duration, in seconds, of each step of the trace.
+     * @param traceBandwidths - bandwidth, in bits per second, of each step. The trace loops when exhausted.
+     */
+    public AbrSimulator( double[] traceDurations, double[] traceBandwidths ) {
+        if( ( traceDurations.length == 0 ) || ( traceDurations.length != traceBandwidths.length ) ) {
+            throw new IllegalArgumentException( "Wrong number of trace steps" );
+        }
+
+        boolean flowing = false;
+        for( int i = 0; i < traceDurations.length; i++ ) {
+            // Negated comparisons also reject NaN
+            if( !( traceDurations[i] > 0 ) ) {
+                throw new IllegalArgumentException( "Trace step durations must be positive" );
+            }
+            if( !( traceBandwidths[i] >= 0 ) || Double.isInfinite( traceBandwidths[i] ) ) {
+                throw new IllegalArgumentException( "Trace bandwidths must be finite and not negative" );
+            }
+            flowing |= traceBandwidths[i] > 0;
+        }
+        if( !flowing ) {
+            throw new IllegalArgumentException( "The trace never lets any data through" );
+        }
+
+        this.traceDurations = traceDurations.clone();
+        this.traceBandwidths = traceBandwidths.clone();
+    }
+
+    /**
+     * Duration of each segment, in seconds. 4 by default.
+     */
+    public void setSegmentDuration( double segmentDuration ) {
+        if( !( segmentDuration > 0 ) ) {
+            throw new IllegalArgumentException( "Segment duration must be positive" );
+        }
+        this.segmentDuration = segmentDuration;
+    }
+
+    /**
+     * Seconds buffered ahead of the playhead before fetching pauses, at least one segment duration. 30 by default.
+     */
+    public void setBufferAhead( double bufferAhead ) {
+        if( !( bufferAhead >= segmentDuration ) ) {
+            throw new IllegalArgumentException( "Buffer ahead must be at least one segment duration" );
+        }
+        this.bufferAhead = bufferAhead;
+    }
+
+    /**
+     * Round-trip time, in seconds, added to every download. 0 by default.
+     */
+    public void setRequestLatency( double requestLatency ) {
+        if( !( requestLatency >= 0 ) ) {
+            throw new IllegalArgumentException( "Request latency must not be negative" );
+        }
+        this.requestLatency = requestLatency;
+    }
+
+    /**
+     * Plays the given number of segments.
+     */
+    public Result run( AbrController controller, int segmentCount ) {
+        Result result = new Result();
+        double time = 0;
+        double buffer = 0;
+        boolean playing = false;
+        double bitrateSum = 0;
+        // The segment duration may have been raised above the buffer ahead since it was set
+        double room = Math.max( bufferAhead - segmentDuration, 0 );
+
+        for( int i = 0; i < segmentCount; i++ ) {
+            if( buffer > room ) {
+                double wait = buffer - room;
+                time += wait;
+                buffer -= wait;
+            }
+
+            Rendition rendition = controller.getRendition( controller.select( buffer, time * 1000 ) );
+            double bytes = ( rendition.getBitrate() * segmentDuration ) / 8;
+            double elapsed = requestLatency + getDownloadTime( bytes, time + requestLatency );
+
+            if( playing ) {
+                if( buffer >= elapsed ) {
+                    buffer -= elapsed;
+                } else {
+                    result.rebufferTime += elapsed - buffer;
+                    result.rebufferCount++;
+                    buffer = 0;
+                }
+            }
+
+            time += elapsed;
+            buffer += segmentDuration;
+            bitrateSum += rendition.getBitrate();
+            controller.onDownload( bytes, elapsed * 1000 );
+
+            if( !playing ) {
+                playing = true;
+                result.startupDelay = time;
+            }
+        }
+
+        result.duration = time + buffer;
+        result.averageBitrate = segmentCount == 0 ? 0 : bitrateSum / segmentCount;
+        result.switchCount = controller.getSwitchCount();
+        return result;
+    }
+
+    /**
+     * Integrates the trace to find how long the given bytes take to download from the given time.
+     */
+    private double getDownloadTime( double bytes, double from ) {
+        double period = 0;
+        for( double duration : traceDurations ) {
+            period += duration;
+        }
+
+        int step = 0;
+        double offset = from % period;
+        while( offset >= traceDurations[step] ) {
+            offset -= traceDurations[step];
+            step = ( step + 1 ) % traceDurations.length;
+        }
+
+        double remaining = bytes * 8;
+        double elapsed = 0;
+
+        while( true ) {
+            double available = traceDurations[step] - offset;
+            double capacity = traceBandwidths[step] * available;
+
+            if( capacity >= remaining ) {
+                return elapsed + ( traceBandwidths[step] > 0 ? remaining / traceBandwidths[step] : 0 );
+            }
+
+            remaining -= capacity;
+            elapsed += available;
+            offset = 0;
+            step = ( step + 1 ) % traceDurations.length;
+        }
+    }
+
+    /**
+     * Outcome of a simulation.
+     */
+    public static class Result {
+        private double startupDelay;
+        private double rebufferTime;
+        private int rebufferCount;
+        private double averageBitrate;
+        private int switchCount;
+        private double duration;
+
+        /**
+         * Gets the seconds until the first segment was buffered.
+         */
+        public double getStartupDelay() {
+            return startupDelay;
+        }
+
+        /**
+         * Gets the seconds spent stalled after startup.
+         */
+        public double getRebufferTime() {
+            return rebufferTime;
+        }
+
+        public int getRebufferCount() {
+            return rebufferCount;
+        }
+
+        /**
+         * Gets the average bitrate of the played segments, in bits per second.
+         */
+        public double getAverageBitrate() {
+            return averageBitrate;
+        }
+
+        public int getSwitchCount() {
+            return switchCount;
+        }
+
+        /**
+         * Gets the simulated wall-clock time, in seconds, until the last segment was played.
+         */
+        public double getDuration() {
+            return duration;
+        }
+
+        @Override
+        public String toString() {
+            return "startup=" + startupDelay + "s rebuffer=" + rebufferTime + "s (" + rebufferCount + ") bitrate="
+                            + averageBitrate + "bps switches=" + switchCount;
+        }
+    }
+}
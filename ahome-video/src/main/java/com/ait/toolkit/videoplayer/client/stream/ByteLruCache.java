@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache bounded by the total size, in bytes, of its values.
+ *
+ * @param <V> type of the cached values.
+ */
+public class ByteLruCache<V> {
+
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<String, Entry<V>>( 16, 0.75f, true );
+
+    private double budget;
+    private double size = 0;
+
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
+    private double bytesSaved = 0;
+
+    /**
+     * @param budget - maximum total size, in bytes.
+     */
+    public ByteLruCache( double budget ) {
+        this.budget = budget;
+    }
+
+    /**
+     * Gets the value cached under the key, marking it as most recently used.
+     *
+     * @return the value, or null on a miss.
+     */
+    public V get( String key ) {
+        Entry<V> entry = entries.get( key );
+
+        if( entry == null ) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        bytesSaved += entry.bytes;
+        return entry.value;
+    }
+
+    /**
+     * Caches a value, evicting the least recently used ones to stay within the budget. Values larger than the whole
+     * budget are not cached.
+     *
+     * @return true if the value was cached.
+     */
+    public boolean put( String key, V value, double bytes ) {
+        remove( key );
+
+        if( bytes > budget ) {
+            return false;
+        }
+
+        entries.put( key, new Entry<V>( value, bytes ) );
+        size += bytes;
+        trim();
+        return true;
+    }
+
+    public void remove( String key ) {
+        Entry<V> entry = entries.remove( key );
+
+        if( entry != null ) {
+            size -= entry.bytes;
+        }
+    }
+
+    public boolean contains( String key ) {
+        return entries.containsKey( key );
+    }
+
+    /**
+     * Changes the budget, evicting values if it shrinks.
+     */
+    public void setBudget( double budget ) {
+        this.budget = budget;
+        trim();
+    }
+
+    public double getBudget() {
+        return budget;
+    }
+
+    /**
+     * Gets the total size, in bytes, of the cached values.
+     */
+    public double getSize() {
+        return size;
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    public int getHitCount() {
+        return hits;
+    }
+
+    public int getMissCount() {
+        return misses;
+    }
+
+    public int getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Gets the fraction of lookups served from the cache.
+     */
+    public double getHitRatio() {
+        int lookups = hits + misses;
+        return lookups == 0 ? 0 : (double)hits / lookups;
+    }
+
+    /**
+     * Gets the number of bytes served from the cache instead of the network.
+     */
+    public double getBytesSaved() {
+        return bytesSaved;
+    }
+
+    public void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        bytesSaved = 0;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator();
+
+        while( ( size > budget ) && iterator.hasNext() ) {
+            size -= iterator.next().getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final double bytes;
+
+        Entry( V value, double bytes ) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
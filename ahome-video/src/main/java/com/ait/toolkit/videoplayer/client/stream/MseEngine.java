@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import com.ait.toolkit.videoplayer.client.BufferedRanges;
+import com.ait.toolkit.videoplayer.client.VideoPlayer;
+import com.ait.toolkit.videoplayer.client.VideoPlayerHandler;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.user.client.Timer;
+
+/**
+ * Plays a {@link SegmentTimeline} of fragmented MP4 segments through Media Source Extensions.
+ * <p>
+ * Segments are fetched one at a time and appended to a single SourceBuffer, within the window maintained by the
+ * {@link SegmentScheduler}: played data older than the buffer-behind window is removed, and nothing is fetched past
+ * the buffer-ahead window. Long videos therefore keep a bounded amount of media in memory.
+ * <p>
+ * A failed download is retried with an exponential backoff, even while the player is paused or stalled. When the
+ * browser refuses an append for lack of space, played data is dropped first; if there is none, the buffer-ahead window
+ * is halved and the data past it dropped. A seek aborts the download in flight, which was for the previous position.
+ *
+ * @see VideoPlayer#setMediaSourceEngine(MseEngine)
+ */
+public class MseEngine {
+
+    private static final int MIN_RETRY_DELAY = 500;
+    private static final int MAX_RETRY_DELAY = 16000;
+
+    private final SegmentScheduler scheduler;
+    private final AbrController abr;
+    private final String mimeType;
+    private final BufferedRanges buffered = new BufferedRanges();
+    private final Timer retryTimer = new Timer() {
+        @Override
+        public void run() {
+            tick();
+        }
+    };
+
+    private VideoPlayer player;
+    private HandlerRegistration timeUpdateRegistration;
+    private HandlerRegistration seekingRegistration;
+
+    private JavaScriptObject media;
+    private JavaScriptObject mediaSource;
+    private JavaScriptObject sourceBuffer;
+    private JavaScriptObject request;
+    private String objectUrl;
+    private String requestKey;
+
+    private boolean busy = false;
+    private boolean ended = false;
+    private boolean fetchingInit = false;
+    private boolean switching = false;
+    private int rendition = 0;
+    private int initRendition = -1;
+    private int retryDelay = MIN_RETRY_DELAY;
+
+    private double loadedBytes = 0;
+    private int loadedSegments = 0;
+    private double lastThroughput = 0;
+
+    /**
+     * @param timeline - segments to play.
+     * @param mimeType - MIME type with codecs of the segments, e.g. video/mp4; codecs="avc1.42E01E, mp4a.40.2".
+     */
+    public MseEngine( SegmentTimeline timeline, String mimeType ) {
+        this.scheduler = new SegmentScheduler( timeline );
+        this.abr = null;
+        this.mimeType = mimeType;
+    }
+
+    /**
+     * Streams a ladder of renditions, choosing the rendition of every segment with the given controller. The
+     * renditions must have aligned segments and share the given MIME type.
+     *
+     * @param abr - adaptive bitrate controller holding the ladder.
+     * @param mimeType - MIME type with codecs of the segments.
+     */
+    public MseEngine( AbrController abr, String mimeType ) {
+        this.scheduler = new SegmentScheduler( abr.getRendition( 0 ).getTimeline() );
+        this.abr = abr;
+        this.mimeType = mimeType;
+    }
+
+    /**
+     * Check if the browser supports Media Source Extensions for the given MIME type.
+     */
+    public static native boolean isSupported( String mimeType ) /*-{
+		var MediaSource = $wnd.MediaSource || $wnd.WebKitMediaSource;
+
+		return !!MediaSource && MediaSource.isTypeSupported(mimeType);
+    }-*/;
+
+    public SegmentScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the adaptive bitrate controller, or null when a single timeline is streamed.
+     */
+    public AbrController getAbrController() {
+        return abr;
+    }
+
+    /**
+     * Gets the number of bytes downloaded so far.
+     */
+    public double getLoadedBytes() {
+        return loadedBytes;
+    }
+
+    public int getLoadedSegments() {
+        return loadedSegments;
+    }
+
+    /**
+     * Gets the throughput, in bits per second, of the last segment download.
+     */
+    public double getLastThroughput() {
+        return lastThroughput;
+    }
+
+    /**
+     * Starts streaming into the HTML5 media element of the given player. Called by the player once it is ready.
+     */
+    public void attach( VideoPlayer player ) {
+        media = findMedia( player.getEl() );
+
+        if( media == null ) {
+            GWT.log( "Media Source Extensions require the HTML5 tech" );
+            return;
+        }
+
+        this.player = player;
+        this.busy = false;
+        this.ended = false;
+        this.fetchingInit = false;
+        this.switching = false;
+        this.initRendition = -1;
+        this.rendition = abr == null ? 0 : abr.getCurrentIndex();
+
+        VideoPlayerHandler tick = new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                tick();
+            }
+        };
+        timeUpdateRegistration = player.addTimeUpdateHandler( tick );
+        seekingRegistration = player.addSeekingHandler( new VideoPlayerHandler() {
+            @Override
+            public void handle( VideoPlayer player ) {
+                onSeeking();
+            }
+        } );
+
+        open();
+    }
+
+    /**
+     * Stops streaming and releases the media source. Called by the player when it is torn down.
+     */
+    public void detach() {
+        if( player == null ) {
+            return;
+        }
+
+        timeUpdateRegistration.removeHandler();
+        seekingRegistration.removeHandler();
+        retryTimer.cancel();
+        retryDelay = MIN_RETRY_DELAY;
+        close();
+
+        player = null;
+        media = null;
+        mediaSource = null;
+        sourceBuffer = null;
+    }
+
+    /**
+     * Fetches or evicts data when the source buffer is idle.
+     */
+    private void tick() {
+        if( busy || ended || ( sourceBuffer == null ) ) {
+            return;
+        }
+
+        double position = player.getCurrentTime();
+        player.getBuffered( buffered );
+
+        double evictionEnd = scheduler.getEvictionEnd( position, buffered );
+        if( evictionEnd > 0 ) {
+            busy = true;
+            remove( 0, evictionEnd );
+            return;
+        }
+
+        int next = scheduler.next( position, buffered );
+        if( next >= 0 ) {
+            // The rendition is chosen once per segment, not again after its initialization segment
+            if( ( abr != null ) && !switching ) {
+                int selected = abr.select( buffered.getAheadOf( position ), Duration.currentTimeMillis() );
+                switching = selected != rendition;
+                rendition = selected;
+            }
+
+            busy = true;
+
+            if( initRendition != rendition ) {
+                fetchingInit = true;
+                load( getTimeline().getInitUrl(), -1, -1 );
+            } else {
+                switching = false;
+                Segment segment = getTimeline().getSegment( next );
+                load( segment.getUrl(), segment.getRangeStart(), segment.getRangeEnd() );
+            }
+        } else if( scheduler.isComplete( position, buffered ) ) {
+            ended = true;
+            endOfStream();
+        }
+    }
+
+    /**
+     * Resumes fetching after the end of stream when the new position is not buffered.
+     */
+    private void onSeeking() {
+        if( request != null ) {
+            abortFetch();
+            busy = false;
+            fetchingInit = false;
+        }
+
+        if( ended ) {
+            player.getBuffered( buffered );
+            // Appending to an ended media source opens it again
+            ended = buffered.contains( player.getCurrentTime() );
+        }
+        tick();
+    }
+
+    private SegmentTimeline getTimeline() {
+        return abr == null ? scheduler.getTimeline() : abr.getRendition( rendition ).getTimeline();
+    }
+
+    private void onSourceOpen() {
+        sourceBuffer = addSourceBuffer( mimeType, scheduler.getTimeline().getDuration() );
+        tick();
+    }
+
+    /**
+     * Gets the data from the page-wide segment cache, or downloads it.
+     */
+    private void load( String url, double rangeStart, double rangeEnd ) {
+        requestKey = SegmentCache.key( url, rangeStart, rangeEnd );
+        JavaScriptObject data = SegmentCache.get().get( requestKey );
+
+        if( data != null ) {
+            onLoaded( data, 0, 0 );
+        } else {
+            fetch( url, rangeStart, rangeEnd, Duration.currentTimeMillis() );
+        }
+    }
+
+    private void onFetched( JavaScriptObject data, double bytes, double startedAt ) {
+        request = null;
+        retryDelay = MIN_RETRY_DELAY;
+        SegmentCache.get().put( requestKey, data, bytes );
+
+        onLoaded( data, bytes, Duration.currentTimeMillis() - startedAt );
+    }
+
+    /**
+     * Appends loaded data.
+     *
+     * @param bytes - bytes downloaded, 0 if served from the cache.
+     * @param elapsed - download duration, in milliseconds.
+     */
+    private void onLoaded( JavaScriptObject data, double bytes, double elapsed ) {
+        if( elapsed > 0 ) {
+            lastThroughput = ( bytes * 8 * 1000 ) / elapsed;
+        }
+        loadedBytes += bytes;
+
+        boolean init = fetchingInit;
+        fetchingInit = false;
+
+        if( !init ) {
+            loadedSegments++;
+
+            if( ( abr != null ) && ( bytes > 0 ) ) {
+                abr.onDownload( bytes, elapsed );
+            }
+        }
+
+        if( append( data ) ) {
+            if( init ) {
+                initRendition = rendition;
+            }
+        } else {
+            // Quota exceeded: drop everything before the current segment and retry on the next tick
+            busy = false;
+            double position = player.getCurrentTime();
+            SegmentTimeline timeline = scheduler.getTimeline();
+            Segment current = timeline.getSegment( Math.max( timeline.indexOf( position ), 0 ) );
+            if( current.getStart() > 0 ) {
+                busy = true;
+                remove( 0, current.getStart() );
+            } else {
+                // Nothing played to drop: keep less ahead, down to the segment being played
+                scheduler.setBufferAhead( Math.max( current.getDuration(), scheduler.getBufferAhead() / 2 ) );
+                double end = timeline.getSegment( timeline.indexOf( position + scheduler.getBufferAhead() ) ).getEnd();
+                player.getBuffered( buffered );
+                if( buffered.getLastEnd() > end ) {
+                    busy = true;
+                    remove( end, buffered.getLastEnd() );
+                }
+            }
+        }
+    }
+
+    private void onFetchFailed( String url ) {
+        request = null;
+        busy = false;
+        fetchingInit = false;
+        GWT.log( "Unable to fetch media segment " + url + ", retrying in " + retryDelay + "ms" );
+
+        // No timeupdate comes while the player is paused or stalled
+        retryTimer.schedule( retryDelay );
+        retryDelay = Math.min( retryDelay * 2, MAX_RETRY_DELAY );
+    }
+
+    private void onUpdateEnd() {
+        busy = false;
+        tick();
+    }
+
+    private native void open() /*-{
+		var self = this;
+		var MediaSource = $wnd.MediaSource || $wnd.WebKitMediaSource;
+		var media = this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::media;
+		var mediaSource = new MediaSource();
+
+		this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::mediaSource = mediaSource;
+		mediaSource.addEventListener('sourceopen', function() {
+			if (self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::mediaSource === mediaSource) {
+				self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::onSourceOpen()();
+			}
+		});
+
+		var url = $wnd.URL.createObjectURL(mediaSource);
+		this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::objectUrl = url;
+		media.src = url;
+    }-*/;
+
+    private native void close() /*-{
+		var request = this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::request;
+		var media = this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::media;
+		var url = this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::objectUrl;
+
+		if (request) {
+			request.abort();
+		}
+		if (url) {
+			$wnd.URL.revokeObjectURL(url);
+		}
+		if (media) {
+			media.removeAttribute('src');
+			media.load();
+		}
+		this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::request = null;
+		this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::objectUrl = null;
+    }-*/;
+
+    private native JavaScriptObject addSourceBuffer( String mimeType, double duration ) /*-{
+		var self = this;
+		var mediaSource = this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::mediaSource;
+		var sourceBuffer = mediaSource.addSourceBuffer(mimeType);
+
+		mediaSource.duration = duration;
+		sourceBuffer.addEventListener('updateend', function() {
+			if (self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::sourceBuffer === sourceBuffer) {
+				self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::onUpdateEnd()();
+			}
+		});
+
+		return sourceBuffer;
+    }-*/;
+
+    private native void fetch( String url, double rangeStart, double rangeEnd, double startedAt ) /*-{
+		var self = this;
+		var request = new $wnd.XMLHttpRequest();
+
+		request.open('GET', url, true);
+		request.responseType = 'arraybuffer';
+		if (rangeStart >= 0) {
+			request.setRequestHeader('Range', 'bytes=' + rangeStart + '-' + rangeEnd);
+		}
+		request.onload = function() {
+			if (self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::request !== request) {
+				return;
+			}
+			if (request.status >= 200 && request.status < 300) {
+				self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::onFetched(Lcom/google/gwt/core/client/JavaScriptObject;DD)(request.response, request.response.byteLength, startedAt);
+			} else {
+				self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::onFetchFailed(Ljava/lang/String;)(url);
+			}
+		};
+		request.onerror = function() {
+			if (self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::request === request) {
+				self.@com.ait.toolkit.videoplayer.client.stream.MseEngine::onFetchFailed(Ljava/lang/String;)(url);
+			}
+		};
+
+		this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::request = request;
+		request.send();
+    }-*/;
+
+    private native void abortFetch() /*-{
+		var request = this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::request;
+
+		this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::request = null;
+		if (request) {
+			request.abort();
+		}
+    }-*/;
+
+    /**
+     * Appends data to the source buffer.
+     *
+     * @return false if the buffer is full.
+     */
+    private native boolean append( JavaScriptObject data ) /*-{
+		var sourceBuffer = this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::sourceBuffer;
+
+		try {
+			sourceBuffer.appendBuffer(data);
+			return true;
+		} catch (e) {
+			if (e.name == 'QuotaExceededError') {
+				return false;
+			}
+			throw e;
+		}
+    }-*/;
+
+    private native void remove( double start, double end ) /*-{
+		this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::sourceBuffer.remove(start, end);
+    }-*/;
+
+    private native void endOfStream() /*-{
+		var mediaSource = this.@com.ait.toolkit.videoplayer.client.stream.MseEngine::mediaSource;
+
+		if (mediaSource.readyState == 'open') {
+			mediaSource.endOfStream();
+		}
+    }-*/;
+
+    private static native JavaScriptObject findMedia( Element el ) /*-{
+		return el ? el.getElementsByTagName('video')[0] || null : null;
+    }-*/;
+}
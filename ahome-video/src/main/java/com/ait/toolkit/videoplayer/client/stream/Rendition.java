@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+/**
+ * One rung of an adaptive bitrate ladder.
+ */
+public class Rendition {
+
+    private final double bitrate;
+    private final int width;
+    private final int height;
+    private final SegmentTimeline timeline;
+
+    /**
+     * @param bitrate - average bitrate, in bits per second.
+     * @param width - frame width, in pixels.
+     * @param height - frame height, in pixels.
+     * @param timeline - segments of the rendition, aligned with the other renditions of the ladder. May be null when
+     *            the rendition is only used for simulation.
+     */
+    public Rendition( double bitrate, int width, int height, SegmentTimeline timeline ) {
+        this.bitrate = bitrate;
+        this.width = width;
+        this.height = height;
+        this.timeline = timeline;
+    }
+
+    public double getBitrate() {
+        return bitrate;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public SegmentTimeline getTimeline() {
+        return timeline;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+/**
+ * Media segment of a {@link SegmentTimeline}: a resource, or a byte range of one, covering a span of media time.
+ */
+public class Segment {
+
+    private final int index;
+    private final String url;
+    private final double start;
+    private final double duration;
+    private final long rangeStart;
+    private final long rangeEnd;
+
+    Segment( int index, String url, double start, double duration, long rangeStart, long rangeEnd ) {
+        this.index = index;
+        this.url = url;
+        this.start = start;
+        this.duration = duration;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the media time, in seconds, the segment starts at.
+     */
+    public double getStart() {
+        return start;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    public double getEnd() {
+        return start + duration;
+    }
+
+    /**
+     * Check if the segment is a byte range of its resource rather than the whole resource.
+     */
+    public boolean hasByteRange() {
+        return rangeStart >= 0;
+    }
+
+    /**
+     * Gets the first byte of the range, or -1 for the whole resource.
+     */
+    public long getRangeStart() {
+        return rangeStart;
+    }
+
+    /**
+     * Gets the last byte (inclusive) of the range, or -1 for the whole resource.
+     */
+    public long getRangeEnd() {
+        return rangeEnd;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Page-wide cache of downloaded media segments, keyed by URL and byte range and shared by every {@link MseEngine},
+ * so rewatching a clip or switching between players of the same video does not download it again.
+ */
+public final class SegmentCache {
+
+    private static final ByteLruCache<JavaScriptObject> CACHE = new ByteLruCache<JavaScriptObject>( 64 * 1024 * 1024 );
+
+    private SegmentCache() {
+    }
+
+    /**
+     * Gets the underlying cache, to tune its budget (64MB by default) or read its hit ratio and saved bytes.
+     */
+    public static ByteLruCache<JavaScriptObject> get() {
+        return CACHE;
+    }
+
+    static String key( String url, double rangeStart, double rangeEnd ) {
+        return rangeStart < 0 ? url : url + "#" + (long)rangeStart + "-" + (long)rangeEnd;
+    }
+}
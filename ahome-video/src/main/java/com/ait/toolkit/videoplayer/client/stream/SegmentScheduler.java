@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import com.ait.toolkit.videoplayer.client.BufferedRanges;
+
+/**
+ * Decides which segment to fetch next and which played data to evict, keeping the source buffer within a window of
+ * {@link #setBufferAhead(double) buffer-ahead} seconds after the playhead and {@link #setBufferBehind(double)
+ * buffer-behind} seconds before it.
+ * <p>
+ * A segment is considered loaded when the middle of its time span is buffered, so the scheduler follows evictions
+ * done by the browser itself, as well as seeks, without extra bookkeeping.
+ */
+public class SegmentScheduler {
+
+    private final SegmentTimeline timeline;
+
+    private double bufferAhead = 30;
+    private double bufferBehind = 10;
+
+    public SegmentScheduler( SegmentTimeline timeline ) {
+        this.timeline = timeline;
+    }
+
+    /**
+     * Seconds of media to keep buffered ahead of the playhead. 30 by default.
+     */
+    public void setBufferAhead( double bufferAhead ) {
+        this.bufferAhead = bufferAhead;
+    }
+
+    public double getBufferAhead() {
+        return bufferAhead;
+    }
+
+    /**
+     * Seconds of played media to keep buffered behind the playhead. 10 by default.
+     */
+    public void setBufferBehind( double bufferBehind ) {
+        this.bufferBehind = bufferBehind;
+    }
+
+    public double getBufferBehind() {
+        return bufferBehind;
+    }
+
+    public SegmentTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Gets the index of the next segment to fetch, or -1 if the buffer-ahead window is full or every remaining segment
+     * is buffered.
+     *
+     * @param position - playback position, in seconds.
+     * @param buffered - currently buffered ranges.
+     */
+    public int next( double position, BufferedRanges buffered ) {
+        if( buffered.getAheadOf( position ) >= bufferAhead ) {
+            return -1;
+        }
+
+        int count = timeline.getSegmentCount();
+
+        for( int i = Math.max( timeline.indexOf( position ), 0 ); i < count; i++ ) {
+            Segment segment = timeline.getSegment( i );
+
+            if( segment.getStart() >= ( position + bufferAhead ) ) {
+                return -1;
+            }
+
+            if( !isBuffered( segment, buffered ) ) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the time up to which buffered data can be removed, or -1 if nothing lies before the buffer-behind window.
+     * The end is aligned on a segment start, so the segment being played is never cut.
+     *
+     * @param position - playback position, in seconds.
+     * @param buffered - currently buffered ranges.
+     */
+    public double getEvictionEnd( double position, BufferedRanges buffered ) {
+        if( ( buffered.getLength() == 0 ) || ( timeline.getSegmentCount() == 0 ) ) {
+            return -1;
+        }
+
+        double limit = position - bufferBehind;
+        if( limit <= 0 ) {
+            return -1;
+        }
+
+        double end = timeline.getSegment( timeline.indexOf( limit ) ).getStart();
+
+        return buffered.getStart( 0 ) < end ? end : -1;
+    }
+
+    /**
+     * Check if every segment from the playback position to the end of the timeline is buffered.
+     */
+    public boolean isComplete( double position, BufferedRanges buffered ) {
+        int count = timeline.getSegmentCount();
+
+        for( int i = Math.max( timeline.indexOf( position ), 0 ); i < count; i++ ) {
+            if( !isBuffered( timeline.getSegment( i ), buffered ) ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isBuffered( Segment segment, BufferedRanges buffered ) {
+        return buffered.contains( segment.getStart() + ( segment.getDuration() / 2 ) );
+    }
+}
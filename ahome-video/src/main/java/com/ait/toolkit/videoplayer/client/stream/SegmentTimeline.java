@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered list of the fragmented MP4 segments of one rendition, preceded by its initialization segment.
+ */
+public class SegmentTimeline {
+
+    private final String initUrl;
+    private final List<Segment> segments = new ArrayList<Segment>();
+    private double[] starts = new double[16];
+    private double duration = 0;
+
+    /**
+     * @param initUrl - URL of the initialization segment.
+     */
+    public SegmentTimeline( String initUrl ) {
+        this.initUrl = initUrl;
+    }
+
+    public String getInitUrl() {
+        return initUrl;
+    }
+
+    /**
+     * Appends a segment following the previous one.
+     *
+     * @param url - segment URL.
+     * @param duration - segment duration, in seconds.
+     */
+    public SegmentTimeline addSegment( String url, double duration ) {
+        return addSegment( url, duration, -1, -1 );
+    }
+
+    /**
+     * Appends a segment, stored as a byte range of a resource, following the previous one.
+     *
+     * @param url - resource URL.
+     * @param duration - segment duration, in seconds.
+     * @param rangeStart - first byte of the segment.
+     * @param rangeEnd - last byte (inclusive) of the segment.
+     */
+    public SegmentTimeline addSegment( String url, double duration, long rangeStart, long rangeEnd ) {
+        if( duration <= 0 ) {
+            throw new IllegalArgumentException( "Segment duration must be positive" );
+        }
+
+        int index = segments.size();
+
+        if( index == starts.length ) {
+            double[] newStarts = new double[index * 2];
+            System.arraycopy( starts, 0, newStarts, 0, index );
+            starts = newStarts;
+        }
+
+        starts[index] = this.duration;
+        segments.add( new Segment( index, url, this.duration, duration, rangeStart, rangeEnd ) );
+        this.duration += duration;
+
+        return this;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public Segment getSegment( int index ) {
+        return segments.get( index );
+    }
+
+    /**
+     * Gets the total duration, in seconds.
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the index of the segment covering the given time: the first segment for negative times, the last one for
+     * times past the end, and -1 if the timeline is empty.
+     */
+    public int indexOf( double time ) {
+        int count = segments.size();
+
+        if( count == 0 ) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = count - 1;
+
+        while( low < high ) {
+            int mid = ( low + high + 1 ) >>> 1;
+
+            if( starts[mid] <= time ) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return low;
+    }
+}
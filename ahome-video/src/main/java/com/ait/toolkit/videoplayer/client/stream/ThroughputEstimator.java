@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+/**
+ * Estimates the available throughput from completed downloads, with two exponentially weighted moving averages
+ * (a fast and a slow one) whose weights decay with download time. The estimate is the lower of the two, so it drops
+ * quickly when the link degrades and rises slowly when it recovers.
+ */
+public class ThroughputEstimator {
+
+    /**
+     * Downloads smaller than this are dominated by latency and ignored.
+     */
+    private static final double MIN_SAMPLE_BYTES = 16 * 1024;
+
+    private final Ewma fast;
+    private final Ewma slow;
+
+    /**
+     * Uses half-lives of 2 and 5 seconds of download time.
+     */
+    public ThroughputEstimator() {
+        this( 2, 5 );
+    }
+
+    /**
+     * @param fastHalfLife - half-life, in seconds of download time, of the fast average.
+     * @param slowHalfLife - half-life, in seconds of download time, of the slow average.
+     */
+    public ThroughputEstimator( double fastHalfLife, double slowHalfLife ) {
+        this.fast = new Ewma( fastHalfLife );
+        this.slow = new Ewma( slowHalfLife );
+    }
+
+    /**
+     * Records a completed download.
+     *
+     * @param bytes - bytes downloaded.
+     * @param millis - download duration, in milliseconds.
+     */
+    public void addSample( double bytes, double millis ) {
+        if( ( bytes < MIN_SAMPLE_BYTES ) || ( millis <= 0 ) ) {
+            return;
+        }
+
+        double seconds = millis / 1000;
+        double bitsPerSecond = ( bytes * 8 ) / seconds;
+
+        fast.add( seconds, bitsPerSecond );
+        slow.add( seconds, bitsPerSecond );
+    }
+
+    /**
+     * Gets the estimated throughput, in bits per second, or 0 if no sample has been recorded.
+     */
+    public double getEstimate() {
+        if( !fast.hasSamples() ) {
+            return 0;
+        }
+        return Math.min( fast.get(), slow.get() );
+    }
+
+    public void reset() {
+        fast.reset();
+        slow.reset();
+    }
+
+    private static class Ewma {
+        private final double alpha;
+        private double estimate = 0;
+        private double totalWeight = 0;
+
+        Ewma( double halfLife ) {
+            this.alpha = Math.exp( Math.log( 0.5 ) / halfLife );
+        }
+
+        void add( double weight, double value ) {
+            double adjustedAlpha = Math.pow( alpha, weight );
+
+            estimate = ( value * ( 1 - adjustedAlpha ) ) + ( adjustedAlpha * estimate );
+            totalWeight += weight;
+        }
+
+        boolean hasSamples() {
+            return totalWeight > 0;
+        }
+
+        /**
+         * Corrects the bias towards the initial zero estimate.
+         */
+        double get() {
+            return estimate / ( 1 - Math.pow( alpha, totalWeight ) );
+        }
+
+        void reset() {
+            estimate = 0;
+            totalWeight = 0;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.thumbnail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A WebVTT thumbnail index: each cue maps a time range to a cell of a sprite sheet, given as a media fragment,
+ * <code>sprite.jpg#xywh=x,y,width,height</code>, in pixels, or <code>sprite.jpg#xywh=percent:x,y,width,height</code>,
+ * in percents of the sprite size.
+ * <p>
+ * The cues are kept in parallel primitive arrays sorted by start time, so looking up the cell for a time is a binary
+ * search without allocation.
+ */
+public class ThumbnailIndex {
+
+    private static final String ARROW = "-->";
+    private static final String XYWH = "xywh=";
+    private static final String PIXEL = "pixel:";
+    private static final String PERCENT = "percent:";
+
+    private final List<String> sprites = new ArrayList<String>();
+
+    private int length = 0;
+    private double[] starts = new double[16];
+    private double[] ends = new double[16];
+    private int[] spriteIndexes = new int[16];
+    private boolean[] percents = new boolean[16];
+    private double[] cells = new double[64];
+
+    /**
+     * Parses a WebVTT thumbnail index. Malformed cues are skipped.
+     *
+     * @param vtt - the content of the index.
+     * @param baseUrl - url of the index, relative sprite urls are resolved against it; may be null.
+     */
+    public static ThumbnailIndex parse( String vtt, String baseUrl ) {
+        ThumbnailIndex index = new ThumbnailIndex();
+        String base = baseUrl == null ? "" : baseUrl.substring( 0, baseUrl.lastIndexOf( '/' ) + 1 );
+
+        String[] lines = vtt.split( "\r\n|\r|\n" );
+        for( int i = 0; i < lines.length; i++ ) {
+            int arrow = lines[i].indexOf( ARROW );
+            if( ( arrow < 0 ) || ( i + 1 >= lines.length ) ) {
+                continue;
+            }
+
+            String timing = lines[i];
+            String target = lines[++i].trim();
+            try {
+                index.parseCue( timing, arrow, target, base );
+            } catch( NumberFormatException e ) {
+                // Skip the cue
+            }
+        }
+
+        return index;
+    }
+
+    private void parseCue( String timing, int arrow, String target, String base ) {
+        String end = timing.substring( arrow + ARROW.length() ).trim();
+        int space = end.indexOf( ' ' );
+        if( space > 0 ) {
+            end = end.substring( 0, space ); // cue settings
+        }
+
+        int hash = target.indexOf( '#' );
+        if( hash < 0 ) {
+            return;
+        }
+
+        String xywh = null;
+        for( String fragment : target.substring( hash + 1 ).split( "&" ) ) {
+            if( fragment.startsWith( XYWH ) ) {
+                xywh = fragment.substring( XYWH.length() );
+            }
+        }
+        if( xywh == null ) {
+            return;
+        }
+
+        boolean percent = false;
+        if( xywh.startsWith( PERCENT ) ) {
+            percent = true;
+            xywh = xywh.substring( PERCENT.length() );
+        } else if( xywh.startsWith( PIXEL ) ) {
+            xywh = xywh.substring( PIXEL.length() );
+        }
+
+        String[] values = xywh.split( "," );
+        if( values.length != 4 ) {
+            return;
+        }
+
+        double start = parseTime( timing.substring( 0, arrow ).trim() );
+        double cueEnd = parseTime( end );
+        double x = Double.parseDouble( values[0].trim() );
+        double y = Double.parseDouble( values[1].trim() );
+        double width = Double.parseDouble( values[2].trim() );
+        double height = Double.parseDouble( values[3].trim() );
+        if( !( cueEnd > start ) || !( width > 0 ) || !( height > 0 ) || !( x >= 0 ) || !( y >= 0 ) ) {
+            return;
+        }
+
+        String sprite = target.substring( 0, hash );
+        if( ( sprite.indexOf( "://" ) < 0 ) && !sprite.startsWith( "/" ) && !sprite.startsWith( "data:" ) ) {
+            sprite = base + sprite;
+        }
+
+        add( start, cueEnd, sprite, percent, x, y, width, height );
+    }
+
+    /**
+     * Parses a WebVTT timestamp, <code>hh:mm:ss.ttt</code> or <code>mm:ss.ttt</code>, into seconds.
+     *
+     * @throws NumberFormatException if the timestamp is malformed.
+     */
+    static double parseTime( String value ) {
+        String[] parts = value.split( ":" );
+        if( ( parts.length < 2 ) || ( parts.length > 3 ) ) {
+            throw new NumberFormatException( "Not a WebVTT timestamp: " + value );
+        }
+
+        double seconds = 0;
+        for( String part : parts ) {
+            seconds = ( seconds * 60 ) + Double.parseDouble( part );
+        }
+        return seconds;
+    }
+
+    /**
+     * Adds a cue, keeping the cues sorted by start time. Cues already in order, as they usually appear in a WebVTT
+     * file, are appended without moving the others.
+     */
+    void add( double start, double end, String sprite, boolean percent, double x, double y, double width, double height ) {
+        if( length == starts.length ) {
+            starts = Arrays.copyOf( starts, length * 2 );
+            ends = Arrays.copyOf( ends, length * 2 );
+            spriteIndexes = Arrays.copyOf( spriteIndexes, length * 2 );
+            percents = Arrays.copyOf( percents, length * 2 );
+            cells = Arrays.copyOf( cells, length * 8 );
+        }
+
+        int spriteIndex = sprites.indexOf( sprite );
+        if( spriteIndex < 0 ) {
+            spriteIndex = sprites.size();
+            sprites.add( sprite );
+        }
+
+        int position = length;
+        while( ( position > 0 ) && ( starts[position - 1] > start ) ) {
+            position--;
+        }
+        if( position < length ) {
+            int moved = length - position;
+            System.arraycopy( starts, position, starts, position + 1, moved );
+            System.arraycopy( ends, position, ends, position + 1, moved );
+            System.arraycopy( spriteIndexes, position, spriteIndexes, position + 1, moved );
+            System.arraycopy( percents, position, percents, position + 1, moved );
+            System.arraycopy( cells, position * 4, cells, ( position + 1 ) * 4, moved * 4 );
+        }
+
+        starts[position] = start;
+        ends[position] = end;
+        spriteIndexes[position] = spriteIndex;
+        percents[position] = percent;
+        cells[position * 4] = x;
+        cells[position * 4 + 1] = y;
+        cells[position * 4 + 2] = width;
+        cells[position * 4 + 3] = height;
+        length++;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the index of the cue covering the given time, or -1 if there is none.
+     *
+     * @param time - in seconds.
+     */
+    public int indexOf( double time ) {
+        int low = 0;
+        int high = length - 1;
+        int found = -1;
+
+        while( low <= high ) {
+            int middle = ( low + high ) >>> 1;
+            if( starts[middle] <= time ) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return ( found >= 0 ) && ( time < ends[found] ) ? found : -1;
+    }
+
+    public double getStart( int index ) {
+        return starts[index];
+    }
+
+    public double getEnd( int index ) {
+        return ends[index];
+    }
+
+    public String getSprite( int index ) {
+        return sprites.get( spriteIndexes[index] );
+    }
+
+    /**
+     * Check if the cell of the cue is given in percents of the sprite size rather than in pixels.
+     */
+    public boolean isPercent( int index ) {
+        return percents[index];
+    }
+
+    public double getX( int index ) {
+        return cells[index * 4];
+    }
+
+    public double getY( int index ) {
+        return cells[index * 4 + 1];
+    }
+
+    public double getWidth( int index ) {
+        return cells[index * 4 + 2];
+    }
+
+    public double getHeight( int index ) {
+        return cells[index * 4 + 3];
+    }
+
+    /**
+     * Gets the distinct sprite sheet urls, in order of first use.
+     */
+    public List<String> getSprites() {
+        return sprites;
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.thumbnail;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.ait.toolkit.videoplayer.client.VideoPlayer;
+import com.ait.toolkit.videoplayer.client.stream.ByteLruCache;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.ImageElement;
+import com.google.gwt.dom.client.Style.Position;
+import com.google.gwt.dom.client.Style.Unit;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+
+/**
+ * Shows a preview thumbnail above the progress bar of a player while the user hovers it.
+ * <p>
+ * Nothing is downloaded until the first hover: the WebVTT index is fetched then, and each sprite sheet the first time
+ * one of its cells is needed. Decoded sprites are kept in a small LRU cache, budgeted by their decoded size, and the
+ * preview shows the cached image itself, so hovering back and forth never downloads a sprite again. A failed index or
+ * sprite download is not retried before {@link #RETRY_DELAY}.
+ */
+public class ThumbnailTrack {
+
+    /**
+     * Milliseconds before a failed download is retried.
+     */
+    public static final int RETRY_DELAY = 30000;
+
+    private final String url;
+    private final ByteLruCache<ImageElement> sprites = new ByteLruCache<ImageElement>( 16 * 1024 * 1024 );
+    private final Set<String> loadingSprites = new HashSet<String>();
+    private final Map<String, Double> failedSprites = new HashMap<String, Double>();
+
+    private ThumbnailIndex index;
+    private boolean loadingIndex = false;
+    private Preview waitingIndex;
+    private double indexFailedAt = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param url - url of the WebVTT thumbnail index.
+     */
+    public ThumbnailTrack( String url ) {
+        this.url = url;
+    }
+
+    /**
+     * Maximum decoded size, in bytes, of the cached sprite sheets. 16MB by default.
+     */
+    public void setCacheBudget( double budget ) {
+        sprites.setBudget( budget );
+    }
+
+    /**
+     * Gets the sprite cache, for its hit and eviction counters.
+     */
+    public ByteLruCache<ImageElement> getCache() {
+        return sprites;
+    }
+
+    /**
+     * Gets the index, or null while it has not been loaded.
+     */
+    public ThumbnailIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Shows previews when hovering the progress bar of the given player.
+     *
+     * @return a registration removing the previews from the player.
+     */
+    public HandlerRegistration attach( VideoPlayer player ) {
+        final Preview preview = new Preview( player );
+        final JavaScriptObject listeners = listen( player.getElement(), preview );
+
+        return new HandlerRegistration() {
+            @Override
+            public void removeHandler() {
+                unlisten( preview.player.getElement(), listeners );
+                preview.hide();
+                if( waitingIndex == preview ) {
+                    waitingIndex = null;
+                }
+            }
+        };
+    }
+
+    private void loadIndex() {
+        loadingIndex = true;
+
+        try {
+            new RequestBuilder( RequestBuilder.GET, url ).sendRequest( null, new RequestCallback() {
+                @Override
+                public void onResponseReceived( Request request, Response response ) {
+                    if( response.getStatusCode() == Response.SC_OK ) {
+                        loadingIndex = false;
+                        index = ThumbnailIndex.parse( response.getText(), url );
+
+                        // Show the preview still hovered right away, rather than on the next mouse move
+                        if( waitingIndex != null ) {
+                            waitingIndex.refresh();
+                            waitingIndex = null;
+                        }
+                    } else {
+                        onIndexFailed();
+                        GWT.log( "Unable to load thumbnails " + url + ": " + response.getStatusCode() );
+                    }
+                }
+
+                @Override
+                public void onError( Request request, Throwable exception ) {
+                    onIndexFailed();
+                    GWT.log( "Unable to load thumbnails " + url, exception );
+                }
+            } );
+        } catch( RequestException e ) {
+            onIndexFailed();
+            GWT.log( "Unable to load thumbnails " + url, e );
+        }
+    }
+
+    private void onIndexFailed() {
+        loadingIndex = false;
+        waitingIndex = null;
+        indexFailedAt = Duration.currentTimeMillis();
+    }
+
+    private boolean canLoadSprite( String sprite ) {
+        if( loadingSprites.contains( sprite ) ) {
+            return false;
+        }
+
+        Double failedAt = failedSprites.get( sprite );
+        return ( failedAt == null ) || ( ( Duration.currentTimeMillis() - failedAt ) >= RETRY_DELAY );
+    }
+
+    private void loadSprite( final String sprite, final Preview waiting ) {
+        loadingSprites.add( sprite );
+
+        ImageElement image = Document.get().createImageElement();
+        onImageLoad( image, new SpriteCallback() {
+            @Override
+            public void execute( ImageElement image, boolean loaded ) {
+                loadingSprites.remove( sprite );
+                if( loaded ) {
+                    failedSprites.remove( sprite );
+                    sprites.put( sprite, image, 4.0 * image.getWidth() * image.getHeight() );
+                    waiting.refresh();
+                } else {
+                    failedSprites.put( sprite, Duration.currentTimeMillis() );
+                }
+            }
+        } );
+        image.setSrc( sprite );
+    }
+
+    private interface SpriteCallback {
+        void execute( ImageElement image, boolean loaded );
+    }
+
+    private static native void onImageLoad( ImageElement image, SpriteCallback command ) /*-{
+		image.onload = $entry(function() {
+			command.@com.ait.toolkit.videoplayer.client.thumbnail.ThumbnailTrack.SpriteCallback::execute(Lcom/google/gwt/dom/client/ImageElement;Z)(image, true);
+		});
+		image.onerror = $entry(function() {
+			command.@com.ait.toolkit.videoplayer.client.thumbnail.ThumbnailTrack.SpriteCallback::execute(Lcom/google/gwt/dom/client/ImageElement;Z)(image, false);
+		});
+    }-*/;
+
+    private static native JavaScriptObject listen( Element root, Preview preview ) /*-{
+		var holderOf = function(target) {
+			while (target && target !== root) {
+				if (target.className && (' ' + target.className + ' ').indexOf(' vjs-progress-holder ') >= 0) {
+					return target;
+				}
+				target = target.parentNode;
+			}
+			return null;
+		};
+		var listeners = {
+			move : $entry(function(event) {
+				var holder = holderOf(event.target);
+				if (holder) {
+					var rect = holder.getBoundingClientRect();
+					var fraction = Math.max(0, Math.min(1, (event.clientX - rect.left) / rect.width));
+					preview.@com.ait.toolkit.videoplayer.client.thumbnail.ThumbnailTrack.Preview::onHover(Lcom/google/gwt/dom/client/Element;DD)(holder, fraction, rect.width);
+				} else {
+					preview.@com.ait.toolkit.videoplayer.client.thumbnail.ThumbnailTrack.Preview::hide()();
+				}
+			}),
+			leave : $entry(function() {
+				preview.@com.ait.toolkit.videoplayer.client.thumbnail.ThumbnailTrack.Preview::hide()();
+			})
+		};
+
+		root.addEventListener('mousemove', listeners.move, false);
+		root.addEventListener('mouseleave', listeners.leave, false);
+		return listeners;
+    }-*/;
+
+    private static native void unlisten( Element root, JavaScriptObject listeners ) /*-{
+		root.removeEventListener('mousemove', listeners.move, false);
+		root.removeEventListener('mouseleave', listeners.leave, false);
+    }-*/;
+
+    /**
+     * The preview box of one player.
+     */
+    private class Preview {
+        private final VideoPlayer player;
+        private final Element box;
+
+        private Element holder;
+        private double fraction;
+        private double holderWidth;
+
+        Preview( VideoPlayer player ) {
+            this.player = player;
+
+            box = Document.get().createDivElement();
+            box.addClassName( "vjs-thumbnail-preview" );
+            box.getStyle().setPosition( Position.ABSOLUTE );
+            box.getStyle().setProperty( "bottom", "100%" );
+            box.getStyle().setProperty( "overflow", "hidden" );
+            box.getStyle().setProperty( "pointerEvents", "none" );
+        }
+
+        void onHover( Element holder, double fraction, double holderWidth ) {
+            this.holder = holder;
+            this.fraction = fraction;
+            this.holderWidth = holderWidth;
+
+            if( index == null ) {
+                waitingIndex = this;
+                if( !loadingIndex && ( ( Duration.currentTimeMillis() - indexFailedAt ) >= RETRY_DELAY ) ) {
+                    loadIndex();
+                }
+                return;
+            }
+
+            refresh();
+        }
+
+        void refresh() {
+            if( ( holder == null ) || ( index == null ) ) {
+                return;
+            }
+
+            int cue = index.indexOf( fraction * player.getDuration() );
+            if( cue < 0 ) {
+                hide();
+                return;
+            }
+
+            String sprite = index.getSprite( cue );
+            ImageElement image = sprites.get( sprite );
+            if( image == null ) {
+                if( canLoadSprite( sprite ) ) {
+                    loadSprite( sprite, this );
+                }
+                return;
+            }
+
+            // Percent cells are relative to the natural size of the sprite
+            double scaleX = index.isPercent( cue ) ? image.getWidth() / 100.0 : 1;
+            double scaleY = index.isPercent( cue ) ? image.getHeight() / 100.0 : 1;
+            double width = index.getWidth( cue ) * scaleX;
+            double height = index.getHeight( cue ) * scaleY;
+
+            if( image.getParentElement() != box ) {
+                box.removeAllChildren();
+                image.getStyle().setPosition( Position.ABSOLUTE );
+                image.getStyle().setProperty( "maxWidth", "none" );
+                box.appendChild( image );
+            }
+            image.getStyle().setLeft( -index.getX( cue ) * scaleX, Unit.PX );
+            image.getStyle().setTop( -index.getY( cue ) * scaleY, Unit.PX );
+
+            box.getStyle().setWidth( width, Unit.PX );
+            box.getStyle().setHeight( height, Unit.PX );
+            box.getStyle().setLeft( Math.max( 0, Math.min( holderWidth - width, ( fraction * holderWidth ) - ( width / 2 ) ) ),
+                            Unit.PX );
+
+            if( box.getParentElement() != holder ) {
+                holder.appendChild( box );
+            }
+        }
+
+        void hide() {
+            holder = null;
+            box.removeFromParent();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BufferedRangesTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testIndexOf() {
+        BufferedRanges ranges = new BufferedRanges( new double[] { 0, 10, 20 }, new double[] { 5, 15, 25 } );
+
+        assertEquals( 0, ranges.indexOf( 0 ) );
+        assertEquals( 0, ranges.indexOf( 5 ) );
+        assertEquals( -1, ranges.indexOf( 7 ) );
+        assertEquals( 1, ranges.indexOf( 12 ) );
+        assertEquals( 2, ranges.indexOf( 25 ) );
+        assertEquals( -1, ranges.indexOf( 30 ) );
+        assertFalse( new BufferedRanges().contains( 0 ) );
+    }
+
+    @Test
+    public void testAheadBridgesSmallGaps() {
+        BufferedRanges ranges = new BufferedRanges( new double[] { 0, 10.05, 30 }, new double[] { 10, 20, 40 } );
+
+        assertEquals( 18, ranges.getAheadOf( 2 ), DELTA );
+        assertEquals( 0, ranges.getAheadOf( 25 ), DELTA );
+        assertEquals( 1, ranges.getGapCount() );
+        assertEquals( 29.95, ranges.getTotal(), DELTA );
+    }
+
+    @Test
+    public void testStallRisk() {
+        BufferedRanges ranges = new BufferedRanges( new double[] { 0 }, new double[] { 10 } );
+
+        assertTrue( ranges.isStallRisk( 8, 60, 5 ) );
+        assertFalse( ranges.isStallRisk( 2, 60, 5 ) );
+        // The buffer reaches the end of the media
+        assertFalse( ranges.isStallRisk( 8, 10, 5 ) );
+    }
+
+    @Test
+    public void testRefill() {
+        BufferedRanges ranges = new BufferedRanges( 1 );
+        ranges.add( 0, 1 );
+        ranges.add( 2, 3 );
+        ranges.add( 4, 5 );
+
+        assertEquals( 3, ranges.getLength() );
+        assertEquals( 5, ranges.getLastEnd(), DELTA );
+
+        ranges.clear();
+        assertEquals( 0, ranges.getLength() );
+        assertEquals( 0, ranges.getLastEnd(), DELTA );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testMismatchedEnds() {
+        new BufferedRanges( new double[] { 0, 1 }, new double[] { 2 } );
+    }
+}
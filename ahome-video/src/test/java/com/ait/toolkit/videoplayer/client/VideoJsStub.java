@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+/**
+ * Minimal stand-in for the videojs runtime, installed on the host window so players can be created headless. It
+ * replaces the video tag with a div like videojs does, calls the ready callback synchronously, and counts the live
+ * instances and the listeners bound with <code>on</code> and not removed with <code>off</code>.
+ */
+final class VideoJsStub {
+
+    private VideoJsStub() {
+    }
+
+    static native void install() /*-{
+		if ($wnd.videojs && $wnd.videojs.__stub) {
+			return;
+		}
+
+		var proto = $wnd.HTMLMediaElement && $wnd.HTMLMediaElement.prototype;
+		if (proto && !proto.canPlayType) {
+			proto.canPlayType = function() {
+				return 'maybe';
+			};
+		}
+
+		var stub = {
+			live : 0,
+			listeners : 0,
+			players : {}
+		};
+
+		var videojs = function(id, options, ready) {
+			if (stub.players[id]) {
+				return stub.players[id];
+			}
+
+			var tag = $doc.getElementById(id);
+			var el = $doc.createElement('div');
+			tag.parentNode.replaceChild(el, tag);
+			el.id = id;
+
+			var handlers = {};
+			var values = {
+				currentTime : 0,
+				paused : true,
+				volume : 1,
+				muted : false
+			};
+			var property = function(name) {
+				return function(value) {
+					if (value !== undefined) {
+						values[name] = value;
+						return this;
+					}
+					return values[name];
+				};
+			};
+
+			var player = {
+				id : function() {
+					return id;
+				},
+				el : function() {
+					return el;
+				},
+				on : function(type, fn) {
+					(handlers[type] = handlers[type] || []).push(fn);
+					stub.listeners++;
+				},
+				off : function(type, fn) {
+					var list = handlers[type] || [];
+					for (var i = 0; i < list.length; i++) {
+						if (list[i] === fn) {
+							list.splice(i, 1);
+							stub.listeners--;
+							return;
+						}
+					}
+				},
+				trigger : function(type) {
+					var list = (handlers[type] || []).slice();
+					for (var i = 0; i < list.length; i++) {
+						list[i].call(player, {
+							type : type
+						});
+					}
+				},
+				currentTime : property('currentTime'),
+				paused : property('paused'),
+				volume : property('volume'),
+				playbackRate : property('playbackRate'),
+				muted : property('muted'),
+				controls : property('controls'),
+				preload : property('preload'),
+				loop : property('loop'),
+				autoplay : property('autoplay'),
+				poster : property('poster'),
+				src : property('src'),
+				duration : function() {
+					return 0;
+				},
+				bufferedEnd : function() {
+					return 0;
+				},
+				buffered : function() {
+					return {
+						length : 0
+					};
+				},
+				dimensions : function() {
+				},
+				play : function() {
+					values.paused = false;
+				},
+				pause : function() {
+					values.paused = true;
+				},
+				load : function() {
+				},
+				addClass : function() {
+				},
+				removeClass : function() {
+				},
+				dispose : function() {
+					if (el.parentNode) {
+						el.parentNode.removeChild(el);
+					}
+					delete stub.players[id];
+					stub.live--;
+				}
+			};
+
+			stub.players[id] = player;
+			stub.live++;
+
+			if (ready) {
+				ready.call(player);
+			}
+			return player;
+		};
+
+		videojs.__stub = stub;
+		videojs.options = {
+			flash : {}
+		};
+		$wnd.videojs = videojs;
+    }-*/;
+
+    /**
+     * Gets the number of instances created and not disposed.
+     */
+    static native int getLivePlayers() /*-{
+		return $wnd.videojs.__stub.live;
+    }-*/;
+
+    /**
+     * Gets the number of listeners bound and not removed.
+     */
+    static native int getListenerCount() /*-{
+		return $wnd.videojs.__stub.listeners;
+    }-*/;
+
+    /**
+     * Fires the given event on every live instance.
+     */
+    static native void triggerAll( String type ) /*-{
+		var players = $wnd.videojs.__stub.players;
+		for ( var id in players) {
+			players[id].trigger(type);
+		}
+    }-*/;
+
+    /**
+     * Gets the number of elements in the document.
+     */
+    static native int getElementCount() /*-{
+		return $doc.getElementsByTagName('*').length;
+    }-*/;
+}
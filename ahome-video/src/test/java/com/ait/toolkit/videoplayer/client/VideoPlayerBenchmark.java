@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.ait.toolkit.videoplayer.client.qoe.Histogram;
+import com.google.gwt.core.client.Callback;
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.gwt.user.client.ui.RootPanel;
+
+/**
+ * Measures the player lifecycle with {@link VideoPlayerStats} against the videojs stub, and prints one
+ * <code>BENCHMARK {"name":...,"metrics":{...}}</code> line per scenario. The <code>benchmark</code> Gradle task collects
+ * them and compares the metrics with <code>benchmark-thresholds.properties</code>.
+ */
+public class VideoPlayerBenchmark extends GWTTestCase {
+
+    private static final int CYCLES = 500;
+    private static final int EVENTS = 10000;
+    private static final int POOL_SIZE = 4;
+
+    @Override
+    public String getModuleName() {
+        return "com.ait.toolkit.videoplayer.VideoPlayer";
+    }
+
+    @Override
+    protected void gwtSetUp() {
+        VideoJsStub.install();
+        VideoPlayerStats.setEnabled( true );
+        VideoPlayerStats.reset();
+    }
+
+    @Override
+    protected void gwtTearDown() {
+        VideoPlayerStats.setEnabled( false );
+    }
+
+    public void testCreate() {
+        whenLoaded( new Runnable() {
+            @Override
+            public void run() {
+                cycle( null );
+                report( "create" );
+            }
+        } );
+    }
+
+    public void testPooledCreate() {
+        whenLoaded( new Runnable() {
+            @Override
+            public void run() {
+                VideoPlayerPool pool = new VideoPlayerPool( POOL_SIZE );
+                cycle( pool );
+                report( "pooled" );
+                pool.clear();
+            }
+        } );
+    }
+
+    public void testDispatch1() {
+        dispatch( 1 );
+    }
+
+    public void testDispatch10() {
+        dispatch( 10 );
+    }
+
+    public void testDispatch100() {
+        dispatch( 100 );
+    }
+
+    /**
+     * Triggers timeupdate on a player with the given number of handlers and reports it as the
+     * <code>dispatch</code> scenario suffixed with that number.
+     */
+    private void dispatch( final int handlers ) {
+        whenLoaded( new Runnable() {
+            @Override
+            public void run() {
+                VideoPlayer player = createPlayer( null );
+                for( int i = 1; i < handlers; i++ ) {
+                    player.addTimeUpdateEventHandler( new TimeUpdateHandler() {
+                        @Override
+                        public void onTimeUpdate( TimeUpdateEvent event ) {
+                        }
+                    } );
+                }
+                RootPanel.get().add( player );
+
+                for( int i = 0; i < EVENTS; i++ ) {
+                    VideoJsStub.triggerAll( "timeupdate" );
+                }
+
+                RootPanel.get().remove( player );
+                report( "dispatch" + handlers );
+            }
+        } );
+    }
+
+    private static void cycle( VideoPlayerPool pool ) {
+        for( int i = 0; i < CYCLES; i++ ) {
+            VideoPlayer player = createPlayer( pool );
+            RootPanel.get().add( player );
+            RootPanel.get().remove( player );
+        }
+    }
+
+    private void whenLoaded( final Runnable benchmark ) {
+        delayTestFinish( 120000 );
+
+        VideoPlayerLoader.load( new Callback<Void, Throwable>() {
+            @Override
+            public void onSuccess( Void result ) {
+                benchmark.run();
+                finishTest();
+            }
+
+            @Override
+            public void onFailure( Throwable reason ) {
+                fail( reason.getMessage() );
+            }
+        } );
+    }
+
+    private static VideoPlayer createPlayer( VideoPlayerPool pool ) {
+        VideoPlayer player = new VideoPlayer( 320, 180 );
+        player.setPool( pool );
+        player.addSource( "clip.mp4", "video/mp4" );
+        player.addTimeUpdateEventHandler( new TimeUpdateHandler() {
+            @Override
+            public void onTimeUpdate( TimeUpdateEvent event ) {
+            }
+        } );
+        return player;
+    }
+
+    private static void report( String name ) {
+        StringBuilder json = new StringBuilder( "BENCHMARK {\"name\":\"" ).append( name ).append( "\",\"metrics\":{" );
+        append( json, "create", VideoPlayerStats.getCreate() );
+        append( json, "attach", VideoPlayerStats.getAttach() );
+        append( json, "dispatch", VideoPlayerStats.getDispatch() );
+        json.append( "\"livePlayers\":" ).append( VideoPlayerStats.getLivePlayers() );
+        json.append( ",\"pooledPlayers\":" ).append( VideoPlayerStats.getPooledPlayers() );
+        json.append( ",\"liveListeners\":" ).append( VideoPlayerStats.getLiveListeners() );
+        System.out.println( json.append( "}}" ) );
+    }
+
+    private static void append( StringBuilder json, String name, Histogram histogram ) {
+        json.append( '"' ).append( name ).append( "Count\":" ).append( histogram.getTotalCount() );
+        json.append( ",\"" ).append( name ).append( "Mean\":" ).append( histogram.getMean() );
+        json.append( ",\"" ).append( name ).append( "P95\":" ).append( histogram.getQuantile( 0.95 ) );
+        json.append( ",\"" ).append( name ).append( "Max\":" ).append( histogram.getMax() ).append( ',' );
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client;
+
+import com.google.gwt.core.client.Callback;
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.gwt.user.client.ui.RootPanel;
+
+/**
+ * Attaches and detaches players many times and checks nothing is retained: no videojs instance, no native listener
+ * and no DOM node outlives its player.
+ */
+public class VideoPlayerLeakTest extends GWTTestCase {
+
+    private static final int CYCLES = 1000;
+
+    @Override
+    public String getModuleName() {
+        return "com.ait.toolkit.videoplayer.VideoPlayer";
+    }
+
+    @Override
+    protected void gwtSetUp() {
+        VideoJsStub.install();
+    }
+
+    public void testReattachSamePlayer() {
+        whenLoaded( new Runnable() {
+            @Override
+            public void run() {
+                VideoPlayer player = createPlayer();
+                int elements = VideoJsStub.getElementCount();
+
+                for( int i = 0; i < CYCLES; i++ ) {
+                    RootPanel.get().add( player );
+                    assertTrue( player.isReady() );
+                    RootPanel.get().remove( player );
+                }
+
+                assertEquals( "reattach: children left", 0, player.getElement().getChildCount() );
+                assertRetainedNothing( "reattach", elements );
+            }
+        } );
+    }
+
+    public void testStateSurvivesRebuild() {
+        whenLoaded( new Runnable() {
+            @Override
+            public void run() {
+                VideoPlayer player = createPlayer();
+                RootPanel.get().add( player );
+                player.setMuted( true );
+                RootPanel.get().remove( player );
+
+                RootPanel.get().add( player );
+                assertTrue( "muted after rebuild", player.isMuted() );
+                RootPanel.get().remove( player );
+            }
+        } );
+    }
+
+    public void testAttachNewPlayers() {
+        whenLoaded( new Runnable() {
+            @Override
+            public void run() {
+                int elements = VideoJsStub.getElementCount();
+
+                for( int i = 0; i < CYCLES; i++ ) {
+                    VideoPlayer player = createPlayer();
+                    RootPanel.get().add( player );
+                    RootPanel.get().remove( player );
+                }
+
+                assertRetainedNothing( "attachNew", elements );
+            }
+        } );
+    }
+
+    public void testPrewarmedPool() {
+        whenLoaded( new Runnable() {
+            @Override
+            public void run() {
+                int elements = VideoJsStub.getElementCount();
+                VideoPlayerPool pool = new VideoPlayerPool( 2 );
+
+                pool.prewarm( 3, new VideoPlayerConfig.Builder( 320, 180 ).build(), "vjs-default-skin" );
+                assertEquals( "prewarmed instances", 2, pool.getIdleCount() );
+                assertEquals( "elements while idle", elements, VideoJsStub.getElementCount() );
+
+                for( int i = 0; i < CYCLES; i++ ) {
+                    VideoPlayer player = createPlayer();
+                    player.setPool( pool );
+                    RootPanel.get().add( player );
+                    RootPanel.get().remove( player );
+                }
+
+                assertEquals( "rentals served cold", 0, pool.getMissCount() );
+                pool.clear();
+                assertRetainedNothing( "prewarmedPool", elements );
+            }
+        } );
+    }
+
+    private void whenLoaded( final Runnable test ) {
+        delayTestFinish( 60000 );
+
+        VideoPlayerLoader.load( new Callback<Void, Throwable>() {
+            @Override
+            public void onSuccess( Void result ) {
+                test.run();
+                finishTest();
+            }
+
+            @Override
+            public void onFailure( Throwable reason ) {
+                fail( reason.getMessage() );
+            }
+        } );
+    }
+
+    private static VideoPlayer createPlayer() {
+        VideoPlayer player = new VideoPlayer( 320, 180 );
+        player.addSource( "clip.mp4", "video/mp4" );
+        player.addPlayEventHandler( new PlayHandler() {
+            @Override
+            public void onPlay( PlayEvent event ) {
+            }
+        } );
+        player.addTimeUpdateEventHandler( new TimeUpdateHandler() {
+            @Override
+            public void onTimeUpdate( TimeUpdateEvent event ) {
+            }
+        } );
+        return player;
+    }
+
+    private static void assertRetainedNothing( String name, int elements ) {
+        String context = name + " after " + CYCLES + " cycles: ";
+        assertEquals( context + "videojs instances", 0, VideoJsStub.getLivePlayers() );
+        assertEquals( context + "native listeners", 0, VideoJsStub.getListenerCount() );
+        assertEquals( context + "element delta", 0, VideoJsStub.getElementCount() - elements );
+        assertEquals( context + "counted videojs instances", 0, VideoPlayerStats.getLivePlayers() );
+        assertEquals( context + "counted native listeners", 0, VideoPlayerStats.getLiveListeners() );
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testBoundsMustIncrease() {
+        new Histogram( 10, 5 );
+    }
+
+    @Test
+    public void testEmpty() {
+        Histogram histogram = new Histogram( 10, 20 );
+
+        assertEquals( 0, histogram.getTotalCount() );
+        assertEquals( 0, histogram.getMean(), DELTA );
+        assertEquals( 0, histogram.getQuantile( 0.95 ), DELTA );
+    }
+
+    @Test
+    public void testBuckets() {
+        Histogram histogram = new Histogram( 10, 20, 50 );
+
+        histogram.record( 10 ); // Bounds are inclusive
+        histogram.record( 10.5 );
+        histogram.record( 50 );
+        histogram.record( 80 );
+
+        assertEquals( 4, histogram.getBucketCount() );
+        assertEquals( 1, histogram.getCount( 0 ) );
+        assertEquals( 1, histogram.getCount( 1 ) );
+        assertEquals( 1, histogram.getCount( 2 ) );
+        assertEquals( 1, histogram.getCount( 3 ) );
+        assertEquals( Double.POSITIVE_INFINITY, histogram.getUpperBound( 3 ), DELTA );
+        assertEquals( 150.5, histogram.getSum(), DELTA );
+        assertEquals( 80, histogram.getMax(), DELTA );
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram( 1, 2, 5, 10 );
+
+        // 90 values up to 1, 8 up to 5, 2 up to 10
+        for( int i = 0; i < 90; i++ ) {
+            histogram.record( 0.5 );
+        }
+        for( int i = 0; i < 8; i++ ) {
+            histogram.record( 4 );
+        }
+        histogram.record( 7 );
+        histogram.record( 9 );
+
+        assertEquals( 1, histogram.getQuantile( 0.5 ), DELTA );
+        assertEquals( 1, histogram.getQuantile( 0.9 ), DELTA );
+        assertEquals( 5, histogram.getQuantile( 0.95 ), DELTA );
+        assertEquals( 5, histogram.getQuantile( 0.98 ), DELTA );
+        assertEquals( 10, histogram.getQuantile( 0.99 ), DELTA );
+        assertEquals( 10, histogram.getQuantile( 1 ), DELTA );
+        // The lowest quantile is the first non-empty bucket
+        assertEquals( 1, histogram.getQuantile( 0 ), DELTA );
+    }
+
+    @Test
+    public void testOverflowQuantileIsTheMax() {
+        Histogram histogram = new Histogram( 1, 2 );
+        histogram.record( 1 );
+        histogram.record( 30 );
+        histogram.record( 12 );
+
+        assertEquals( 1, histogram.getQuantile( 0.3 ), DELTA );
+        assertEquals( 30, histogram.getQuantile( 0.5 ), DELTA );
+        assertEquals( 30, histogram.getQuantile( 0.99 ), DELTA );
+    }
+
+    @Test
+    public void testReset() {
+        Histogram histogram = new Histogram( 1, 2 );
+        histogram.record( 1.5 );
+        histogram.reset();
+
+        assertEquals( 0, histogram.getTotalCount() );
+        assertEquals( 0, histogram.getCount( 1 ) );
+        assertEquals( 0, histogram.getMax(), DELTA );
+        assertEquals( 0, histogram.getQuantile( 0.5 ), DELTA );
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.qoe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class QoeSessionTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final Histogram timeToFirstFrame = new Histogram( 100, 250, 500, 1000 );
+    private final Histogram seekLatency = new Histogram( 50, 100, 250, 500 );
+    private final Histogram rebuffer = new Histogram( 250, 500, 1000, 2000 );
+
+    private QoeSession newSession() {
+        QoeSession session = new QoeSession( timeToFirstFrame, seekLatency, rebuffer );
+        session.setSource( "clip.mp4" );
+        return session;
+    }
+
+    @Test
+    public void testNotStartedWithoutPlay() {
+        QoeSession session = newSession();
+        session.onTimeUpdate( 100, 0.5 );
+
+        assertFalse( session.isStarted() );
+        assertEquals( -1, session.finish( 200, 0, 0 ).getTimeToFirstFrame(), DELTA );
+        assertEquals( 0, timeToFirstFrame.getTotalCount() );
+    }
+
+    @Test
+    public void testTimeToFirstFrame() {
+        QoeSession session = newSession();
+        session.onFirstPlay( 1000 );
+        session.onFirstPlay( 1100 ); // Only the first request counts
+
+        // No frame yet at position 0
+        session.onTimeUpdate( 1200, 0 );
+        session.onTimeUpdate( 1300, 0.1 );
+        session.onTimeUpdate( 1500, 0.3 );
+
+        QoeReport report = session.finish( 2000, 0, 0 );
+        assertTrue( session.isStarted() );
+        assertEquals( "clip.mp4", report.getSource() );
+        assertEquals( 300, report.getTimeToFirstFrame(), DELTA );
+        assertEquals( 1, timeToFirstFrame.getTotalCount() );
+        assertEquals( 500, timeToFirstFrame.getQuantile( 0.5 ), DELTA );
+    }
+
+    @Test
+    public void testRebuffering() {
+        QoeSession session = newSession();
+        session.onFirstPlay( 0 );
+
+        // Waiting before the first frame is startup, not rebuffering
+        session.onWaiting( 50 );
+        session.onTimeUpdate( 100, 0.25 );
+        session.onTimeUpdate( 350, 0.5 );
+
+        session.onWaiting( 400 );
+        session.onWaiting( 500 ); // Already rebuffering
+        session.onTimeUpdate( 600, 0.5 ); // No progress yet
+        session.onTimeUpdate( 1100, 0.75 );
+
+        QoeReport report = session.finish( 2000, 0, 0 );
+        assertEquals( 1, report.getRebufferCount() );
+        assertEquals( 0.7, report.getRebufferTime(), DELTA );
+        assertEquals( 0.5, report.getPlayTime(), DELTA );
+        assertEquals( 1, rebuffer.getTotalCount() );
+        assertEquals( 1000, rebuffer.getQuantile( 1 ), DELTA );
+    }
+
+    @Test
+    public void testRebufferingClosedByFinish() {
+        QoeSession session = newSession();
+        session.onFirstPlay( 0 );
+        session.onTimeUpdate( 100, 0.25 );
+        session.onWaiting( 200 );
+
+        QoeReport report = session.finish( 500, 0, 0 );
+        assertEquals( 1, report.getRebufferCount() );
+        assertEquals( 0.3, report.getRebufferTime(), DELTA );
+    }
+
+    @Test
+    public void testSeekLatency() {
+        QoeSession session = newSession();
+        session.onFirstPlay( 0 );
+        session.onTimeUpdate( 100, 0.25 );
+
+        session.onSeeking( 1000 );
+        session.onWaiting( 1010 ); // Waiting while seeking is part of the seek
+        session.onSeeking( 1020 ); // Still the same seek
+        session.onSeeked( 1080 );
+        session.onSeeked( 1200 ); // No seek in progress
+
+        session.onSeeking( 2000 );
+        session.onSeeked( 2300 );
+
+        // The jump of the seek is not play time
+        session.onTimeUpdate( 2400, 30 );
+        session.onTimeUpdate( 2650, 30.25 );
+
+        QoeReport report = session.finish( 3000, 0, 0 );
+        assertEquals( 2, report.getSeekCount() );
+        assertEquals( 190, report.getAverageSeekLatency(), DELTA );
+        assertEquals( 0, report.getRebufferCount() );
+        assertEquals( 0.25, report.getPlayTime(), DELTA );
+        assertEquals( 2, seekLatency.getTotalCount() );
+        assertEquals( 100, seekLatency.getQuantile( 0.5 ), DELTA );
+        assertEquals( 500, seekLatency.getQuantile( 1 ), DELTA );
+    }
+
+    @Test
+    public void testSeekingEndsRebuffering() {
+        QoeSession session = newSession();
+        session.onFirstPlay( 0 );
+        session.onTimeUpdate( 100, 0.25 );
+        session.onWaiting( 200 );
+        session.onSeeking( 600 );
+        session.onSeeked( 700 );
+
+        QoeReport report = session.finish( 1000, 0, 0 );
+        assertEquals( 1, report.getRebufferCount() );
+        assertEquals( 0.4, report.getRebufferTime(), DELTA );
+    }
+
+    @Test
+    public void testBitrateSwitches() {
+        QoeSession session = newSession();
+        session.onRendition( 0 ); // Unknown
+        session.onRendition( 640 * 360 );
+        session.onRendition( 640 * 360 );
+        session.onRendition( 1280 * 720 );
+        session.onRendition( 640 * 360 );
+
+        assertEquals( 2, session.finish( 0, 0, 0 ).getBitrateSwitches() );
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class AbrControllerTest {
+
+    /**
+     * 1, 2 and 4 Mbps, given out of order.
+     */
+    private static AbrController createController() {
+        return new AbrController( Arrays.asList( new Rendition( 4e6, 1280, 720, null ), new Rendition( 1e6, 640, 360,
+                        null ), new Rendition( 2e6, 854, 480, null ) ) );
+    }
+
+    private static void download( AbrController controller, double bitsPerSecond ) {
+        controller.onDownload( bitsPerSecond / 8, 1000 );
+    }
+
+    @Test
+    public void testLadderIsSorted() {
+        AbrController controller = createController();
+
+        assertEquals( 1e6, controller.getRendition( 0 ).getBitrate(), 0 );
+        assertEquals( 2e6, controller.getRendition( 1 ).getBitrate(), 0 );
+        assertEquals( 4e6, controller.getRendition( 2 ).getBitrate(), 0 );
+    }
+
+    @Test
+    public void testHoldsWithoutEstimate() {
+        AbrController controller = createController();
+        controller.setInitialRendition( 1 );
+
+        assertEquals( 1, controller.select( 0, 0 ) );
+    }
+
+    @Test
+    public void testClimbsOneRungPerInterval() {
+        AbrController controller = createController();
+        download( controller, 10e6 );
+
+        assertEquals( 1, controller.select( 25, 0 ) );
+        assertEquals( 1, controller.select( 25, 5000 ) );
+        assertEquals( 2, controller.select( 25, 10000 ) );
+        assertEquals( 2, controller.getSwitchCount() );
+    }
+
+    @Test
+    public void testNoClimbBelowTheHighMark() {
+        AbrController controller = createController();
+        download( controller, 10e6 );
+
+        assertEquals( 0, controller.select( 15, 0 ) );
+    }
+
+    @Test
+    public void testDownSwitches() {
+        AbrController controller = createController();
+        controller.setInitialRendition( 2 );
+        download( controller, 1.5e6 );
+
+        // Between the marks, one rung at a time
+        assertEquals( 1, controller.select( 10, 0 ) );
+        // Below the low mark, straight to the candidate
+        assertEquals( 0, controller.select( 5, 0 ) );
+    }
+
+    @Test
+    public void testPanic() {
+        AbrController controller = createController();
+        controller.setInitialRendition( 2 );
+        download( controller, 100e6 );
+
+        assertEquals( 0, controller.select( 1, 0 ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsDecreasingBufferLevels() {
+        createController().setBufferLevels( 8, 2, 20 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsEmptyLadder() {
+        new AbrController( new ArrayList<Rendition>() );
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class AbrSimulatorTest {
+
+    private static final double DELTA = 1e-6;
+
+    private static AbrController createController( double... bitrates ) {
+        Rendition[] renditions = new Rendition[bitrates.length];
+        for( int i = 0; i < bitrates.length; i++ ) {
+            renditions[i] = new Rendition( bitrates[i], 0, 0, null );
+        }
+        return new AbrController( Arrays.asList( renditions ) );
+    }
+
+    @Test
+    public void testSteadyLink() {
+        AbrSimulator simulator = new AbrSimulator( new double[] { 60 }, new double[] { 10e6 } );
+        AbrSimulator.Result result = simulator.run( createController( 1e6, 2e6, 4e6 ), 50 );
+
+        // 4 seconds at 1 Mbps take 0.4 seconds at 10 Mbps
+        assertEquals( 0.4, result.getStartupDelay(), DELTA );
+        assertEquals( 0, result.getRebufferCount() );
+        assertTrue( result.getAverageBitrate() > 2e6 );
+    }
+
+    @Test
+    public void testSlowLinkRebuffers() {
+        AbrSimulator simulator = new AbrSimulator( new double[] { 60 }, new double[] { 0.5e6 } );
+        AbrSimulator.Result result = simulator.run( createController( 1e6 ), 10 );
+
+        // Each segment takes 8 seconds to download and plays for 4
+        assertEquals( 8, result.getStartupDelay(), DELTA );
+        assertEquals( 9, result.getRebufferCount() );
+        assertEquals( 36, result.getRebufferTime(), DELTA );
+    }
+
+    @Test
+    public void testOutagesAreCrossed() {
+        AbrSimulator simulator = new AbrSimulator( new double[] { 1, 1 }, new double[] { 1e6, 0 } );
+        AbrSimulator.Result result = simulator.run( createController( 1e6 ), 1 );
+
+        // 4 seconds of data flow, with 3 outages between them
+        assertEquals( 7, result.getStartupDelay(), DELTA );
+    }
+
+    @Test
+    public void testRequestLatency() {
+        AbrSimulator simulator = new AbrSimulator( new double[] { 60 }, new double[] { 10e6 } );
+        simulator.setRequestLatency( 0.1 );
+
+        assertEquals( 0.5, simulator.run( createController( 1e6 ), 1 ).getStartupDelay(), DELTA );
+    }
+
+    @Test
+    public void testNoSegment() {
+        AbrSimulator simulator = new AbrSimulator( new double[] { 60 }, new double[] { 10e6 } );
+        AbrSimulator.Result result = simulator.run( createController( 1e6 ), 0 );
+
+        assertEquals( 0, result.getAverageBitrate(), 0 );
+        assertEquals( 0, result.getDuration(), 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsDeadTrace() {
+        new AbrSimulator( new double[] { 1, 1 }, new double[] { 0, 0 } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsEmptySteps() {
+        new AbrSimulator( new double[] { 1, 0 }, new double[] { 1e6, 1e6 } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsNaNSteps() {
+        new AbrSimulator( new double[] { Double.NaN }, new double[] { 1e6 } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsNegativeBandwidths() {
+        new AbrSimulator( new double[] { 1, 1 }, new double[] { 1e6, -1 } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsMismatchedTrace() {
+        new AbrSimulator( new double[] { 1, 1 }, new double[] { 1e6 } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsEmptySegments() {
+        new AbrSimulator( new double[] { 1 }, new double[] { 1e6 } ).setSegmentDuration( 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsBufferAheadBelowOneSegment() {
+        AbrSimulator simulator = new AbrSimulator( new double[] { 1 }, new double[] { 1e6 } );
+        simulator.setSegmentDuration( 4 );
+        simulator.setBufferAhead( 3 );
+    }
+
+    @Test
+    public void testBufferAheadOfOneSegment() {
+        AbrSimulator simulator = new AbrSimulator( new double[] { 1 }, new double[] { 8e6 } );
+        simulator.setSegmentDuration( 2 );
+        simulator.setBufferAhead( 2 );
+
+        // Fetching only resumes once the buffer has drained, so every download stalls playback
+        AbrSimulator.Result result = simulator.run( createController( 1e6 ), 10 );
+        assertEquals( 0.25, result.getStartupDelay(), DELTA );
+        assertEquals( 9, result.getRebufferCount() );
+        assertEquals( 9 * 0.25, result.getRebufferTime(), DELTA );
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ByteLruCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        ByteLruCache<String> cache = new ByteLruCache<String>( 300 );
+        cache.put( "a", "A", 100 );
+        cache.put( "b", "B", 100 );
+        cache.put( "c", "C", 100 );
+
+        // Reading a makes b the least recently used
+        assertEquals( "A", cache.get( "a" ) );
+        cache.put( "d", "D", 100 );
+
+        assertFalse( cache.contains( "b" ) );
+        assertTrue( cache.contains( "a" ) );
+        assertTrue( cache.contains( "c" ) );
+        assertTrue( cache.contains( "d" ) );
+        assertEquals( 1, cache.getEvictionCount() );
+    }
+
+    @Test
+    public void testEvictsUntilTheNewValueFits() {
+        ByteLruCache<String> cache = new ByteLruCache<String>( 300 );
+        cache.put( "a", "A", 100 );
+        cache.put( "b", "B", 100 );
+        cache.put( "c", "C", 100 );
+        cache.put( "d", "D", 250 );
+
+        assertEquals( 1, cache.getEntryCount() );
+        assertEquals( 250, cache.getSize(), 0 );
+        assertEquals( 3, cache.getEvictionCount() );
+    }
+
+    @Test
+    public void testByteAccounting() {
+        ByteLruCache<String> cache = new ByteLruCache<String>( 1000 );
+        cache.put( "a", "A", 100 );
+        cache.put( "b", "B", 200 );
+        assertEquals( 300, cache.getSize(), 0 );
+
+        // Replacing a value counts its new size only
+        cache.put( "a", "A2", 50 );
+        assertEquals( 250, cache.getSize(), 0 );
+        assertEquals( 2, cache.getEntryCount() );
+
+        cache.remove( "b" );
+        cache.remove( "missing" );
+        assertEquals( 50, cache.getSize(), 0 );
+
+        cache.clear();
+        assertEquals( 0, cache.getSize(), 0 );
+        assertEquals( 0, cache.getEntryCount() );
+    }
+
+    @Test
+    public void testOversizeValuesAreNotCached() {
+        ByteLruCache<String> cache = new ByteLruCache<String>( 100 );
+        cache.put( "a", "A", 60 );
+
+        assertFalse( cache.put( "big", "BIG", 101 ) );
+        assertFalse( cache.contains( "big" ) );
+        // Nothing was evicted to make room for it
+        assertTrue( cache.contains( "a" ) );
+        assertEquals( 60, cache.getSize(), 0 );
+
+        // An oversize value replacing a cached one drops the old one
+        assertFalse( cache.put( "a", "A2", 200 ) );
+        assertFalse( cache.contains( "a" ) );
+        assertEquals( 0, cache.getSize(), 0 );
+
+        assertTrue( cache.put( "exact", "E", 100 ) );
+    }
+
+    @Test
+    public void testShrinkingTheBudget() {
+        ByteLruCache<String> cache = new ByteLruCache<String>( 300 );
+        cache.put( "a", "A", 100 );
+        cache.put( "b", "B", 100 );
+        cache.put( "c", "C", 100 );
+
+        cache.setBudget( 150 );
+
+        assertEquals( 1, cache.getEntryCount() );
+        assertTrue( cache.contains( "c" ) );
+        assertEquals( 100, cache.getSize(), 0 );
+    }
+
+    @Test
+    public void testCounters() {
+        ByteLruCache<String> cache = new ByteLruCache<String>( 1000 );
+        cache.put( "a", "A", 100 );
+
+        cache.get( "a" );
+        cache.get( "a" );
+        assertNull( cache.get( "b" ) );
+
+        assertEquals( 2, cache.getHitCount() );
+        assertEquals( 1, cache.getMissCount() );
+        assertEquals( 2.0 / 3, cache.getHitRatio(), 1e-9 );
+        assertEquals( 200, cache.getBytesSaved(), 0 );
+
+        cache.resetCounters();
+        assertEquals( 0, cache.getHitRatio(), 0 );
+        assertEquals( 0, cache.getBytesSaved(), 0 );
+    }
+}
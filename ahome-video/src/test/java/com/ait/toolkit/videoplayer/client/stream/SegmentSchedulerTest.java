@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.ait.toolkit.videoplayer.client.BufferedRanges;
+
+public class SegmentSchedulerTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * 30 segments of 4 seconds.
+     */
+    private static SegmentScheduler createScheduler() {
+        SegmentTimeline timeline = new SegmentTimeline( "init.mp4" );
+        for( int i = 0; i < 30; i++ ) {
+            timeline.addSegment( "seg" + i + ".m4s", 4 );
+        }
+
+        SegmentScheduler scheduler = new SegmentScheduler( timeline );
+        scheduler.setBufferAhead( 20 );
+        scheduler.setBufferBehind( 8 );
+        return scheduler;
+    }
+
+    private static BufferedRanges ranges( double... bounds ) {
+        double[] starts = new double[bounds.length / 2];
+        double[] ends = new double[bounds.length / 2];
+        for( int i = 0; i < starts.length; i++ ) {
+            starts[i] = bounds[i * 2];
+            ends[i] = bounds[( i * 2 ) + 1];
+        }
+        return new BufferedRanges( starts, ends );
+    }
+
+    @Test
+    public void testNextFillsTheWindow() {
+        SegmentScheduler scheduler = createScheduler();
+
+        assertEquals( 0, scheduler.next( 0, ranges() ) );
+        assertEquals( 3, scheduler.next( 1, ranges( 0, 12 ) ) );
+        // The window is full
+        assertEquals( -1, scheduler.next( 1, ranges( 0, 24 ) ) );
+        // Nothing past the window is fetched
+        assertEquals( -1, scheduler.next( 0, ranges( 0, 20 ) ) );
+    }
+
+    @Test
+    public void testNextFillsHoles() {
+        SegmentScheduler scheduler = createScheduler();
+
+        assertEquals( 2, scheduler.next( 1, ranges( 0, 8, 12, 16 ) ) );
+    }
+
+    @Test
+    public void testNextAfterSeek() {
+        SegmentScheduler scheduler = createScheduler();
+
+        assertEquals( 25, scheduler.next( 101, ranges( 0, 24 ) ) );
+    }
+
+    @Test
+    public void testEvictionKeepsTheWindowBehind() {
+        SegmentScheduler scheduler = createScheduler();
+
+        assertEquals( -1, scheduler.getEvictionEnd( 6, ranges( 0, 20 ) ), DELTA );
+        // 8 seconds behind 30 is 22, which lies in the segment starting at 20
+        assertEquals( 20, scheduler.getEvictionEnd( 30, ranges( 0, 40 ) ), DELTA );
+        assertEquals( -1, scheduler.getEvictionEnd( 30, ranges( 20, 40 ) ), DELTA );
+        assertEquals( -1, scheduler.getEvictionEnd( 30, ranges() ), DELTA );
+    }
+
+    @Test
+    public void testCompleteOnlyUntilSeekingOutOfTheBuffer() {
+        SegmentScheduler scheduler = createScheduler();
+        BufferedRanges tail = ranges( 80, 120 );
+
+        assertTrue( scheduler.isComplete( 100, tail ) );
+        assertFalse( scheduler.isComplete( 40, tail ) );
+        assertEquals( 10, scheduler.next( 40, tail ) );
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SegmentTimelineTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testSegmentsFollowEachOther() {
+        SegmentTimeline timeline = new SegmentTimeline( "init.mp4" );
+        for( int i = 0; i < 20; i++ ) {
+            timeline.addSegment( "seg" + i + ".m4s", 2 + ( i % 2 ) );
+        }
+
+        assertEquals( 20, timeline.getSegmentCount() );
+        assertEquals( 50, timeline.getDuration(), DELTA );
+        assertEquals( 5, timeline.getSegment( 2 ).getStart(), DELTA );
+        assertEquals( 10, timeline.getSegment( 3 ).getEnd(), DELTA );
+        assertEquals( 19, timeline.getSegment( 19 ).getIndex() );
+    }
+
+    @Test
+    public void testIndexOf() {
+        SegmentTimeline timeline = new SegmentTimeline( "init.mp4" );
+
+        assertEquals( -1, timeline.indexOf( 0 ) );
+
+        timeline.addSegment( "a.m4s", 4 ).addSegment( "b.m4s", 4 ).addSegment( "c.m4s", 4 );
+
+        assertEquals( 0, timeline.indexOf( -1 ) );
+        assertEquals( 0, timeline.indexOf( 3.9 ) );
+        assertEquals( 1, timeline.indexOf( 4 ) );
+        assertEquals( 2, timeline.indexOf( 11 ) );
+        assertEquals( 2, timeline.indexOf( 100 ) );
+    }
+
+    @Test
+    public void testByteRanges() {
+        SegmentTimeline timeline = new SegmentTimeline( "media.mp4" );
+        timeline.addSegment( "media.mp4", 4, 1000, 1999 ).addSegment( "media.mp4", 4 );
+
+        Segment segment = timeline.getSegment( 0 );
+        assertEquals( true, segment.hasByteRange() );
+        assertEquals( 1000, segment.getRangeStart() );
+        assertEquals( 1999, segment.getRangeEnd() );
+        assertEquals( false, timeline.getSegment( 1 ).hasByteRange() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testRejectsEmptySegments() {
+        new SegmentTimeline( "init.mp4" ).addSegment( "a.m4s", 0 );
+    }
+}
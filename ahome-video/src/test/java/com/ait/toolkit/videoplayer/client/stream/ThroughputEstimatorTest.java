@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ThroughputEstimatorTest {
+
+    private static final double DELTA = 1;
+
+    /**
+     * Records one second of download at the given throughput.
+     */
+    private static void download( ThroughputEstimator estimator, double bitsPerSecond ) {
+        estimator.addSample( bitsPerSecond / 8, 1000 );
+    }
+
+    @Test
+    public void testNoSample() {
+        assertEquals( 0, new ThroughputEstimator().getEstimate(), 0 );
+    }
+
+    @Test
+    public void testSteadyThroughput() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+
+        // No bias towards the initial zero, even after a single sample
+        download( estimator, 8e6 );
+        assertEquals( 8e6, estimator.getEstimate(), DELTA );
+
+        for( int i = 0; i < 10; i++ ) {
+            download( estimator, 8e6 );
+        }
+        assertEquals( 8e6, estimator.getEstimate(), DELTA );
+    }
+
+    @Test
+    public void testSmallDownloadsAreIgnored() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        download( estimator, 8e6 );
+
+        estimator.addSample( 1024, 1000 );
+        estimator.addSample( 1e6, 0 );
+
+        assertEquals( 8e6, estimator.getEstimate(), DELTA );
+    }
+
+    @Test
+    public void testDropsFastAndRisesSlowly() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        for( int i = 0; i < 10; i++ ) {
+            download( estimator, 8e6 );
+        }
+
+        // One second out of a 2 second half-life weighs about 30%
+        download( estimator, 2e6 );
+        double dropped = estimator.getEstimate();
+        assertEquals( 6.2e6, dropped, 0.1e6 );
+
+        // The slow average holds the estimate back
+        download( estimator, 8e6 );
+        double recovered = estimator.getEstimate();
+        assertTrue( recovered > dropped );
+        assertTrue( ( recovered - dropped ) < ( ( 8e6 - dropped ) / 2 ) );
+    }
+
+    @Test
+    public void testReset() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        download( estimator, 8e6 );
+        estimator.reset();
+
+        assertEquals( 0, estimator.getEstimate(), 0 );
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2015 Ahomé Innovation Technologies. All rights reserved.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ait.toolkit.videoplayer.client.thumbnail;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ThumbnailIndexTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testParse() {
+        ThumbnailIndex index = ThumbnailIndex.parse( "WEBVTT\n\n" //
+                        + "00:00.000 --> 00:05.000\nsprite.jpg#xywh=0,0,160,90\n\n" //
+                        + "00:00:05.000 --> 00:00:10.000 align:start\nsprite.jpg#xywh=160,0,160,90\n", "http://cdn/v/thumbs.vtt" );
+
+        assertEquals( 2, index.getLength() );
+        assertEquals( "http://cdn/v/sprite.jpg", index.getSprite( 1 ) );
+        assertEquals( 1, index.getSprites().size() );
+        assertEquals( 10, index.getEnd( 1 ), DELTA );
+        assertEquals( 160, index.getX( 1 ), DELTA );
+        assertFalse( index.isPercent( 1 ) );
+    }
+
+    @Test
+    public void testUnitsAndFractions() {
+        ThumbnailIndex index = ThumbnailIndex.parse( "WEBVTT\n\n" //
+                        + "00:00.000 --> 00:05.000\n/a.jpg#xywh=pixel:10.5,0,160.25,90\n\n" //
+                        + "00:05.000 --> 00:10.000\n/a.jpg#xywh=percent:25,50,25,50\n\n" //
+                        + "00:10.000 --> 00:15.000\n/a.jpg#t=10&xywh=0,0,160,90\n", null );
+
+        assertEquals( 3, index.getLength() );
+        assertEquals( 10.5, index.getX( 0 ), DELTA );
+        assertEquals( 160.25, index.getWidth( 0 ), DELTA );
+        assertFalse( index.isPercent( 0 ) );
+        assertTrue( index.isPercent( 1 ) );
+        assertEquals( 50, index.getY( 1 ), DELTA );
+        assertEquals( "/a.jpg", index.getSprite( 2 ) );
+    }
+
+    @Test
+    public void testMalformedCuesAreSkipped() {
+        ThumbnailIndex index = ThumbnailIndex.parse( "WEBVTT\n\n" //
+                        + "00:00.000 --> 00:05.000\na.jpg#xywh=0,0,160\n\n" //
+                        + "00:05.000 --> 00:10.000\na.jpg#xywh=0,0,wide,90\n\n" //
+                        + "00:aa.000 --> 00:15.000\na.jpg#xywh=0,0,160,90\n\n" //
+                        + "00:15.000 --> 00:20.000\na.jpg\n\n" //
+                        + "00:25.000 --> 00:20.000\na.jpg#xywh=0,0,160,90\n\n" //
+                        + "25.000 --> 30.000\na.jpg#xywh=0,0,160,90\n\n" //
+                        + "00:30.000 --> 00:35.000\na.jpg#xywh=0,0,160,90\n", null );
+
+        assertEquals( 1, index.getLength() );
+        assertEquals( 30, index.getStart( 0 ), DELTA );
+    }
+
+    @Test
+    public void testCuesAreSorted() {
+        ThumbnailIndex index = ThumbnailIndex.parse( "WEBVTT\n\n" //
+                        + "00:10.000 --> 00:15.000\nc.jpg#xywh=0,0,160,90\n\n" //
+                        + "00:00.000 --> 00:05.000\na.jpg#xywh=0,0,160,90\n\n" //
+                        + "00:05.000 --> 00:10.000\nb.jpg#xywh=0,0,160,90\n", null );
+
+        assertEquals( "a.jpg", index.getSprite( index.indexOf( 2 ) ) );
+        assertEquals( "b.jpg", index.getSprite( index.indexOf( 7 ) ) );
+        assertEquals( "c.jpg", index.getSprite( index.indexOf( 12 ) ) );
+        assertEquals( -1, index.indexOf( 15 ) );
+        assertEquals( -1, index.indexOf( -1 ) );
+    }
+
+    @Test
+    public void testGrowsPastTheInitialCapacity() {
+        StringBuilder vtt = new StringBuilder( "WEBVTT\n\n" );
+        for( int i = 99; i >= 0; i-- ) {
+            vtt.append( "00:" ).append( i ).append( ".000 --> 00:" ).append( i + 1 ).append( ".000\ns.jpg#xywh=" )
+                            .append( i ).append( ",0,10,10\n\n" );
+        }
+        ThumbnailIndex index = ThumbnailIndex.parse( vtt.toString(), null );
+
+        assertEquals( 100, index.getLength() );
+        for( int i = 0; i < 100; i++ ) {
+            assertEquals( i, index.getStart( i ), DELTA );
+            assertEquals( i, index.getX( i ), DELTA );
+        }
+    }
+}